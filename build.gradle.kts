@@ -11,6 +11,14 @@ repositories {
     mavenLocal()
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[jmh.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[jmh.runtimeOnlyConfigurationName].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
@@ -22,6 +30,9 @@ dependencies {
 
     testImplementation(libs.junit.jupiter)
     testRuntimeOnly(libs.junit.platform.launcher)
+
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator.annprocess)
 }
 
 java {
@@ -42,6 +53,19 @@ tasks.test {
     }
 }
 
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks once per thread count. Use -PjmhInclude=<regex> and -PjmhThreads=1,8,64 to narrow the run."
+
+    classpath = jmh.runtimeClasspath
+    mainClass = "com.toxicstoxm.YAJL.benchmarks.BenchmarkRunner"
+    args(
+        providers.gradleProperty("jmhInclude").getOrElse(".*"),
+        providers.gradleProperty("jmhThreads").getOrElse("1,8,64"),
+        layout.buildDirectory.dir("reports/jmh").get().asFile.path
+    )
+}
+
 mavenPublishing {
     publishToMavenCentral()
 
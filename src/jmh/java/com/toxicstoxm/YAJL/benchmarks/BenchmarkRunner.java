@@ -0,0 +1,55 @@
+package com.toxicstoxm.YAJL.benchmarks;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Entry point of the {@code jmh} Gradle task.
+ * <p>
+ * JMH only accepts a single thread count per run, so the selected benchmarks are executed once for every
+ * requested thread count. The GC profiler is always attached, which adds {@code gc.alloc.rate.norm}
+ * (bytes allocated per operation) to every result.
+ * </p>
+ * Arguments: {@code <include regex> <comma separated thread counts> <result directory>}
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {}
+
+    public static void main(String @NotNull [] args) throws RunnerException, IOException {
+        String include = args.length > 0 ? args[0] : ".*";
+        int[] threadCounts = parseThreadCounts(args.length > 1 ? args[1] : "1,8,64");
+        Path resultDirectory = Path.of(args.length > 2 ? args[2] : "build/reports/jmh");
+
+        Files.createDirectories(resultDirectory);
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDirectory.resolve("results-" + threads + "-threads.json").toString())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+
+    private static int @NotNull [] parseThreadCounts(@NotNull String threadCounts) {
+        return Arrays.stream(threadCounts.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
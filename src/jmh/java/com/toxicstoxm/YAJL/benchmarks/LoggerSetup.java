@@ -0,0 +1,91 @@
+package com.toxicstoxm.YAJL.benchmarks;
+
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Shared logger configuration for all benchmarks.
+ * <p>
+ * Every benchmark that takes this state as a parameter is run once per {@link Mode}:
+ * <ul>
+ *   <li>{@link Mode#DISABLED}: {@code INFO} is below the minimum log level, so every log call is skipped.</li>
+ *   <li>{@link Mode#CONSOLE}: log lines are printed to a console output that discards everything.</li>
+ *   <li>{@link Mode#ASYNC_CONSOLE}: like {@link Mode#CONSOLE}, but the console is written by the async console writer.</li>
+ *   <li>{@link Mode#FILE}: like {@link Mode#CONSOLE}, but log files are enabled in a temporary directory.</li>
+ *   <li>{@link Mode#BINARY_FILE}: only binary log files in a temporary directory, without any console output.</li>
+ * </ul>
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class LoggerSetup {
+    public enum Mode {
+        DISABLED, CONSOLE, ASYNC_CONSOLE, FILE, BINARY_FILE
+    }
+
+    @Param({"DISABLED", "CONSOLE", "ASYNC_CONSOLE", "FILE", "BINARY_FILE"})
+    public Mode mode;
+
+    private Path logDirectory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        LoggerManager.resetSettings();
+
+        LoggerManager.LoggerBlueprint blueprint = LoggerManager.configure();
+        blueprint.outputs(List.of(new PrintStream(OutputStream.nullOutputStream())));
+        blueprint.internalLog(false);
+
+        switch (mode) {
+            case DISABLED -> blueprint.minimumLogLevel(LogLevels.WARN.getLevel());
+            case CONSOLE -> blueprint.minimumLogLevel(LogLevels.INFO.getLevel());
+            case ASYNC_CONSOLE -> blueprint.minimumLogLevel(LogLevels.INFO.getLevel())
+                    .asyncConsoleOutput(true);
+            case FILE -> {
+                logDirectory = Files.createTempDirectory("yajl-jmh-");
+                blueprint.minimumLogLevel(LogLevels.INFO.getLevel())
+                        .enableLogFiles(true)
+                        .compressOldLogFiles(false)
+                        .logDirectory(logDirectory.toString());
+            }
+            case BINARY_FILE -> {
+                logDirectory = Files.createTempDirectory("yajl-jmh-");
+                blueprint.outputs(List.of());
+                blueprint.minimumLogLevel(LogLevels.INFO.getLevel())
+                        .enableLogFiles(true)
+                        .binaryLogFiles(true)
+                        .compressOldLogFiles(false)
+                        .logDirectory(logDirectory.toString());
+            }
+        }
+
+        blueprint.done();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        LoggerManager.configure()
+                .enableLogFiles(false)
+                .asyncConsoleOutput(false)
+                .done();
+        LoggerManager.resetSettings();
+
+        if (logDirectory != null) {
+            try (Stream<Path> files = Files.walk(logDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            logDirectory = null;
+        }
+    }
+}
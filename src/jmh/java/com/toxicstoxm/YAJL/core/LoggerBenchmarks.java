@@ -0,0 +1,83 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.benchmarks.LoggerSetup;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.layout.CompiledLayout;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link Logger#log(com.toxicstoxm.YAJL.core.level.LogLevel, String, Object...)} as a whole
+ * and for the pipeline stages it runs through before a line reaches the outputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggerBenchmarks {
+    private static final Logger logger = LoggerManager.getLogger(LoggerBenchmarks.class);
+
+    private static final String TEMPLATE = "Request {} answered with {} after {} ms";
+    private static final String FILE_LINE = "[12:00:00] [LoggerBenchmarks] [INFO]: Request /api/users answered with 200 after 12.5 ms";
+
+    private static final String MULTI_LINE = """
+            Request failed
+              |- Message: "Connection reset"
+              \\- Trace
+                   at com.example.Client.send(Client.java:42)
+                   at com.example.Client.request(Client.java:17)
+                   at com.example.Service.handle(Service.java:88)
+                   \\--> ... 12 more""";
+
+    private String path = "/api/users";
+    private Integer status = 200;
+    private Double duration = 12.5;
+
+    /**
+     * Run with {@code -prof gc} to check allocations: the synchronous {@code CONSOLE} path and the log file sink
+     * in {@code FILE} and {@code BINARY_FILE} allocate nothing per event, see {@link com.toxicstoxm.YAJL.io.LogFileSinkBenchmarks}.
+     */
+    @Benchmark
+    public void log(LoggerSetup setup) {
+        logger.info(TEMPLATE, path, status, duration);
+    }
+
+    /**
+     * A block like the ones {@link com.toxicstoxm.YAJL.errorhandling.ExceptionHandler} logs, rendered line by line.
+     */
+    @Benchmark
+    public void logMultiLine(LoggerSetup setup) {
+        logger.info(MULTI_LINE);
+    }
+
+    /**
+     * {@code DEBUG} is below the minimum level in every {@link LoggerSetup.Mode}, so this measures the disabled fast path.
+     */
+    @Benchmark
+    public void disabledDebug(LoggerSetup setup) {
+        logger.debug(TEMPLATE, path, status, duration);
+    }
+
+    @Benchmark
+    public boolean shouldSkipLog(LoggerSetup setup) {
+        return logger.shouldSkipLog(LogLevels.INFO);
+    }
+
+    @Benchmark
+    public String formatMessage(LoggerSetup setup) {
+        return Logger.formatMessage(TEMPLATE, new Object[]{path, status, duration});
+    }
+
+    @Benchmark
+    public CompiledLayout getCompiledLayout(LoggerSetup setup) {
+        return LoggerManager.getCompiledLayout();
+    }
+
+    @Benchmark
+    public void writeLogFile(LoggerSetup setup) {
+        LoggerManager.writeLogFile(FILE_LINE);
+    }
+}
@@ -0,0 +1,57 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost metrics add to a log call.
+ * Compare {@link #log()} with {@code metricsEnabled=true} and {@code false} for the overhead per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmarks {
+    private static final Logger logger = LoggerManager.getLogger(MetricsBenchmarks.class);
+
+    @Param({"true", "false"})
+    public boolean metricsEnabled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        LoggerManager.resetSettings();
+        LoggerManager.configure()
+                .outputs(List.of(new PrintStream(OutputStream.nullOutputStream())))
+                .internalLog(false)
+                .minimumLogLevel(LogLevels.INFO.getLevel())
+                .metricsEnabled(metricsEnabled)
+                .done();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LoggerManager.resetSettings();
+    }
+
+    @Benchmark
+    public void log() {
+        logger.info("Request {} answered with {}", "/api/users", 200);
+    }
+
+    /**
+     * The part of the metrics every event pays for: one counter increment and the sampling decision.
+     */
+    @Benchmark
+    public boolean countAndSample() {
+        LogMetrics.countEvent(LogLevels.INFO);
+        return LogMetrics.sample();
+    }
+}
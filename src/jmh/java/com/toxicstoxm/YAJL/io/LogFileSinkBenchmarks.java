@@ -0,0 +1,80 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures handing a rendered line to the {@link LogFileManager}, without rendering or any other appender.
+ * <p>
+ * Run with {@code -prof gc} to check allocations: once the line pool is warm, queueing a line allocates nothing,
+ * neither for text nor for binary log files. The queue blocks while it is full, so every line is actually written.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogFileSinkBenchmarks {
+    private static final String MESSAGE = "[12:00:00] [LogFileSinkBenchmarks] [INFO]: Request /api/users answered with 200 after 12.5 ms";
+
+    @Param({"false", "true"})
+    public boolean binary;
+
+    private Path logDirectory;
+    private LogFileManager sink;
+
+    @State(Scope.Thread)
+    public static class Line {
+        private final LogLine line = new LogLine();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            line.set(LogLevels.INFO, "LogFileSinkBenchmarks");
+            line.getBytes().append(MESSAGE).appendLineSeparator();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        logDirectory = Files.createTempDirectory("yajl-jmh-");
+
+        LoggerManager.resetSettings();
+        LoggerManager.configure()
+                .internalLog(false)
+                .compressOldLogFiles(false)
+                .binaryLogFiles(binary)
+                .logFileOverflowPolicy(OverflowPolicy.BLOCK)
+                .logDirectory(logDirectory.toString())
+                .done();
+
+        sink = new LogFileManager();
+        sink.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sink.shutdown();
+        LoggerManager.resetSettings();
+
+        try (Stream<Path> files = Files.walk(logDirectory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append(Line line) {
+        sink.append(line.line);
+    }
+}
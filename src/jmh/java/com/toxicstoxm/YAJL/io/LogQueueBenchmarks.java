@@ -0,0 +1,68 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link LogQueue} implementations used between the logging threads and the log file writer.
+ * <p>
+ * A background thread keeps draining the queue in batches, like the log file writer does.
+ * {@code offerThroughput} reports offers per microsecond, {@code offerLatency} samples single offers and reports
+ * percentiles (including p0.99). Run it across producer counts with
+ * {@code ./gradlew jmh -PjmhInclude=LogQueueBenchmarks -PjmhThreads=1,2,4,8,16,32,64}.
+ * </p>
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogQueueBenchmarks {
+    private static final String MESSAGE = "[12:00:00] [LogQueueBenchmarks] [INFO]: Request /api/users answered with 200 after 12.5 ms";
+
+    @Param({"BLOCKING", "MPSC"})
+    public LogQueueType queueType;
+
+    private LogQueue<String> queue;
+    private volatile boolean running;
+    private Thread consumer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        queue = queueType.create(10_000);
+        running = true;
+
+        consumer = new Thread(() -> {
+            int idle = 0;
+            while (running) {
+                if (queue.drain(_ -> {}, 256) == 0) {
+                    WaitStrategy.YIELD.idle(idle++);
+                } else {
+                    idle = 0;
+                }
+            }
+        }, "LogQueueBenchmarks-Consumer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        consumer.join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean offerThroughput() {
+        return queue.offer(MESSAGE);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean offerLatency() {
+        return queue.offer(MESSAGE);
+    }
+}
@@ -0,0 +1,73 @@
+package com.toxicstoxm.YAJL.layout;
+
+import com.toxicstoxm.YAJL.benchmarks.LoggerSetup;
+import com.toxicstoxm.YAJL.core.LogEnvironment;
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.Logger;
+import com.toxicstoxm.YAJL.core.RenderContext;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.util.CachingSupplier;
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.ColorDepth;
+import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a layout consisting of a single built-in {@link PlaceholderToken}, once for colored and once for plain output.
+ * A fresh {@link LogEnvironment} is created per operation, just like {@link Logger#log} does per event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlaceholderBenchmarks {
+    private static final RenderContext COLORED = new RenderContext(true);
+    private static final RenderContext PLAIN = new RenderContext(false);
+
+    @Param({"time", "level", "levelColor", "message", "prefix", "color", "trace", "prefixColor", "mixLevelAndAreaColor"})
+    public String placeholder;
+
+    private List<LayoutToken> tokens;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tokens = List.of(new PlaceholderToken(placeholder, staticArgs(placeholder), new LayoutCacheKey("{" + placeholder + "}", true, ClockSource.WALL_CLOCK, ColorDepth.TRUECOLOR)));
+    }
+
+    private static @NotNull Map<String, String> staticArgs(@NotNull String placeholder) {
+        Map<String, String> args = new LinkedHashMap<>();
+        switch (placeholder) {
+            case "time" -> args.put("format", "HH:mm:ss");
+            case "color" -> args.put("hex", "#545454");
+            case "trace" -> {
+                args.put("line", "");
+                args.put("class", "");
+                args.put("method", "");
+            }
+            default -> {}
+        }
+        return args;
+    }
+
+    private static @NotNull LogEnvironment newEnvironment() {
+        return new LogEnvironment(LogLevels.INFO, "Request /api/users answered with 200", "PlaceholderBenchmarks", new CachingSupplier<>(TraceTools::getCaller), 0, LogFields.EMPTY);
+    }
+
+    @Benchmark
+    public String renderColored(LoggerSetup setup) {
+        return Logger.renderLayout(tokens, newEnvironment(), COLORED);
+    }
+
+    @Benchmark
+    public String renderPlain(LoggerSetup setup) {
+        return Logger.renderLayout(tokens, newEnvironment(), PLAIN);
+    }
+}
@@ -0,0 +1,59 @@
+package com.toxicstoxm.YAJL.util.tools;
+
+import com.toxicstoxm.YAJL.benchmarks.LoggerSetup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of resolving the caller of a log statement, as done for every line rendered with a {@code {trace}} placeholder.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TraceToolsBenchmarks {
+    private static final StackWalker LEGACY_WALKER =
+            StackWalker.getInstance(Set.of(StackWalker.Option.RETAIN_CLASS_REFERENCE));
+
+    @Benchmark
+    public TraceTools.CallerInfo getCaller(LoggerSetup setup) {
+        return TraceTools.getCaller();
+    }
+
+    /**
+     * The previous implementation, for comparison: an unbounded walk that compares every frame's class name against the ignored prefixes.
+     */
+    @Benchmark
+    public TraceTools.CallerInfo getCallerLegacy(LoggerSetup setup) {
+        return LEGACY_WALKER.walk(stream ->
+                stream
+                        .filter(f -> !isIgnored(f.getClassName()))
+                        .findFirst()
+                        .map(f -> {
+                            String className = f.getClassName();
+                            int idx = className.lastIndexOf('.');
+                            String simple = (idx >= 0)
+                                    ? className.substring(idx + 1)
+                                    : className;
+
+                            return new TraceTools.CallerInfo(
+                                    className,
+                                    simple,
+                                    f.getMethodName(),
+                                    f.getLineNumber()
+                            );
+                        }).orElse(new TraceTools.CallerInfo("Unknown", "Unknown", "Unknown", -1))
+        );
+    }
+
+    private static boolean isIgnored(String className) {
+        for (String prefix : TraceTools.ignoredPrefixes()) {
+            if (className.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.io.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The appenders of a published {@link LoggerConfig}, flattened into arrays for the logging hot path.
+ * <p>
+ * The console outputs and the log file are ported onto the {@link Appender} SPI here:
+ * the outputs become one {@link ConsoleAppender}, wrapped in an {@link AsyncAppender} if async console output is enabled,
+ * and the {@link LogFileManager} is registered as a plain appender if log files are enabled.
+ * Binary log files are not an appender, the logger hands them the unformatted event instead.
+ * Appenders registered with the {@link LoggerManager.LoggerBlueprint} follow.
+ * </p>
+ */
+final class AppenderPipeline {
+    /**
+     * Console settings the console appender was built for. If they did not change, the appender is reused.
+     */
+    private record ConsoleSettings(
+            List<PrintStream> outputs,
+            boolean async,
+            int bufferSize,
+            WaitStrategy waitStrategy,
+            OverflowPolicy overflowPolicy,
+            LogLevel dropThreshold
+    ) {
+        private static @NotNull ConsoleSettings of(@NotNull LoggerConfig conf) {
+            return new ConsoleSettings(
+                    conf.getOutputs(),
+                    conf.isAsyncConsoleOutput(),
+                    conf.getAsyncConsoleBufferSize(),
+                    conf.getAsyncConsoleWaitStrategy(),
+                    overflowPolicy(conf),
+                    conf.getAsyncConsoleDropThreshold()
+            );
+        }
+
+        /**
+         * The asynchronous console output can't drop lines it already buffered, so {@link OverflowPolicy#DROP_OLDEST} falls back to {@link OverflowPolicy#DROP}.
+         */
+        private static @NotNull OverflowPolicy overflowPolicy(@NotNull LoggerConfig conf) {
+            OverflowPolicy policy = conf.getAsyncConsoleOverflowPolicy();
+            if (policy != OverflowPolicy.DROP_OLDEST) return policy;
+
+            if (conf.isAsyncConsoleOutput()) {
+                LoggerManager.internalLog("Asynchronous console output doesn't support overflow policy " + policy + ", using " + OverflowPolicy.DROP + " instead");
+            }
+            return OverflowPolicy.DROP;
+        }
+    }
+
+    static final AppenderPipeline EMPTY = new AppenderPipeline(List.of(), null, null, null);
+
+    private final AppenderBinding[] bindings;
+    private final boolean[] colored;
+    private final boolean anyColored;
+    private final boolean anyPlain;
+
+    private final ConsoleSettings consoleSettings;
+    private final Appender console;
+    private final LogFileManager binaryLog;
+
+    private AppenderPipeline(@NotNull List<AppenderBinding> bindings, @Nullable ConsoleSettings consoleSettings, @Nullable Appender console, @Nullable LogFileManager binaryLog) {
+        this.bindings = bindings.toArray(AppenderBinding[]::new);
+        this.colored = new boolean[this.bindings.length];
+
+        boolean anyColored = false;
+        boolean anyPlain = false;
+        for (int i = 0; i < this.bindings.length; i++) {
+            colored[i] = this.bindings[i].appender().isColored();
+            anyColored |= colored[i];
+            anyPlain |= !colored[i];
+        }
+
+        this.anyColored = anyColored;
+        this.anyPlain = anyPlain;
+        this.consoleSettings = consoleSettings;
+        this.console = console;
+        this.binaryLog = binaryLog;
+    }
+
+    /**
+     * Builds the pipeline for a new config, reusing the console appender of the previous pipeline if possible.
+     */
+    static @NotNull AppenderPipeline build(@NotNull LoggerConfig conf, @NotNull AppenderPipeline previous, @NotNull LogFileManager logFileManager) {
+        List<AppenderBinding> bindings = new ArrayList<>();
+
+        ConsoleSettings consoleSettings = ConsoleSettings.of(conf);
+        Appender console = null;
+
+        if (!conf.getOutputs().isEmpty()) {
+            if (consoleSettings.equals(previous.consoleSettings)) {
+                console = previous.console;
+            } else {
+                console = new ConsoleAppender(conf.getOutputs());
+                if (conf.isAsyncConsoleOutput()) {
+                    console = new AsyncAppender(
+                            console,
+                            conf.getAsyncConsoleBufferSize(),
+                            conf.getAsyncConsoleWaitStrategy(),
+                            consoleSettings.overflowPolicy(),
+                            conf.getAsyncConsoleDropThreshold(),
+                            "YAJL-ConsoleWriter"
+                    );
+                }
+            }
+            bindings.add(AppenderBinding.of(console));
+        }
+
+        // Binary log files receive the unformatted events instead of rendered lines
+        boolean binary = conf.isEnableLogFiles() && conf.isBinaryLogFiles();
+        if (conf.isEnableLogFiles() && !binary) {
+            bindings.add(AppenderBinding.of(logFileManager));
+        }
+
+        bindings.addAll(conf.getAppenders());
+
+        return new AppenderPipeline(bindings, console == null ? null : consoleSettings, console, binary ? logFileManager : null);
+    }
+
+    /**
+     * Closes the appenders of this pipeline that are not part of its replacement.
+     * The log file manager is not closed here, its lifecycle follows {@link LoggerConfig#isEnableLogFiles()}.
+     */
+    void closeReplaced(@NotNull AppenderPipeline replacement) {
+        Set<Appender> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AppenderBinding binding : replacement.bindings) {
+            retained.add(binding.appender());
+        }
+
+        closeAll(retained);
+    }
+
+    /**
+     * Closes all appenders of this pipeline, except for the log file manager.
+     */
+    void close() {
+        closeAll(Set.of());
+    }
+
+    private void closeAll(@NotNull Set<Appender> retained) {
+        Set<Appender> closed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (AppenderBinding binding : bindings) {
+            Appender appender = binding.appender();
+            if (appender instanceof LogFileManager || retained.contains(appender) || !closed.add(appender)) {
+                continue;
+            }
+
+            try {
+                appender.close();
+            } catch (RuntimeException e) {
+                LoggerManager.internalLog("Failed to close " + appender, e);
+            }
+        }
+    }
+
+    /**
+     * @return the log file manager if it writes binary log files, {@code null} otherwise
+     */
+    @Nullable LogFileManager binaryLog() {
+        return binaryLog;
+    }
+
+    AppenderBinding[] bindings() {
+        return bindings;
+    }
+
+    boolean isColored(int index) {
+        return colored[index];
+    }
+
+    boolean anyColored() {
+        return anyColored;
+    }
+
+    boolean anyPlain() {
+        return anyPlain;
+    }
+}
@@ -0,0 +1,198 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.io.LogQueue;
+import com.toxicstoxm.YAJL.io.LogQueueType;
+import com.toxicstoxm.YAJL.io.WaitStrategy;
+import com.toxicstoxm.YAJL.io.WakeupSignal;
+import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Formats and renders log events on a background thread, see {@link LoggerConfig#isDeferredFormatting()}.
+ * <p>
+ * Logging threads only capture the template, the arguments, the timestamp and, if the layout shows it, the caller.
+ * Arguments that may change after the log call are converted to text while they are captured,
+ * immutable ones (see {@link Loggable}) are kept by reference and formatted by the dispatcher thread.
+ * If the queue is full, the logging thread waits for space, so events are never dropped and the events
+ * of each thread are rendered in the order they were logged. Only events logged while the dispatcher stops,
+ * or by the dispatcher thread itself while the queue is full, are rendered by the logging thread right away.
+ * </p>
+ */
+final class DeferredDispatcher {
+    /**
+     * An event captured on the logging thread.
+     */
+    private record Event(
+            Logger logger,
+            LogLevel level,
+            String template,
+            Object[] args,
+            LogFields fields,
+            long timestamp,
+            @Nullable TraceTools.CallerInfo caller
+    ) {}
+
+    private static final int BATCH_SIZE = 256;
+
+    private final LogQueue<Event> queue;
+    private final Thread dispatcher;
+    private final WakeupSignal signal = new WakeupSignal();
+    private final BooleanSupplier hasWork;
+    private volatile boolean running = true;
+
+    // Set by the dispatcher thread once it stopped, afterwards producers render events they queued late themselves
+    private final Object lifecycleLock = new Object();
+    private boolean terminated = false;
+
+    DeferredDispatcher(int capacity) {
+        this.queue = LogQueueType.MPSC.create(capacity);
+        this.hasWork = () -> !running || !queue.isEmpty();
+
+        Thread thread = new Thread(this::dispatch, "YAJL-Formatter");
+        thread.setDaemon(true);
+        this.dispatcher = thread;
+        thread.start();
+    }
+
+    /**
+     * Captures the event for formatting on the dispatcher thread.
+     *
+     * Waits while the queue is full, so events queued earlier by the same thread are rendered first.
+     *
+     * @param captureCaller whether the layout shows the caller, which can only be determined on the logging thread
+     * @return {@code false} if the event could not be queued and has to be rendered by the caller
+     */
+    boolean offer(@NotNull Logger logger, @NotNull LogLevel level, @NotNull String template, Object @NotNull [] args,
+                  @NotNull LogFields fields, long timestamp, boolean captureCaller) {
+        if (!running) return false;
+
+        Object[] captured = args.length == 0 ? args : new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            captured[i] = snapshot(args[i]);
+        }
+
+        Event event = new Event(
+                logger, level, template, captured, fields.copy(DeferredDispatcher::snapshot), timestamp,
+                captureCaller ? TraceTools.getCaller() : null
+        );
+
+        int attempt = 0;
+        while (!queue.offer(event)) {
+            // The dispatcher can't make room while it is the one waiting
+            if (!running || Thread.currentThread() == dispatcher) return false;
+
+            signal.signal();
+            WaitStrategy.PARK.idle(attempt++);
+        }
+
+        // The dispatcher may have been stopped after the running check, then it might not see this event anymore
+        if (running) {
+            signal.signal();
+        } else {
+            renderAfterStop();
+        }
+        return true;
+    }
+
+    /**
+     * @return the argument itself if it can't change until it is formatted, its text otherwise
+     */
+    static Object snapshot(Object arg) {
+        if (arg == null || arg instanceof Supplier<?> || isImmutable(arg)) {
+            // suppliers are meant to be evaluated lazily, so they are called on the dispatcher thread
+            return arg;
+        }
+        if (arg instanceof Loggable loggable) {
+            return loggable.snapshot();
+        }
+        return String.valueOf(arg);
+    }
+
+    private static boolean isImmutable(@NotNull Object arg) {
+        return arg instanceof String || arg instanceof Number && isImmutableNumber(arg)
+                || arg instanceof Boolean || arg instanceof Character || arg instanceof Enum<?>
+                || arg instanceof UUID || arg instanceof Class<?>
+                || (arg instanceof TemporalAccessor || arg instanceof TemporalAmount) && arg.getClass().getName().startsWith("java.time.");
+    }
+
+    private static boolean isImmutableNumber(@NotNull Object number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Double || number instanceof Float
+                || number instanceof Short || number instanceof Byte
+                || number.getClass() == BigInteger.class || number.getClass() == BigDecimal.class;
+    }
+
+    private void dispatch() {
+        int attempt = 0;
+
+        while (running || !queue.isEmpty()) {
+            int drained = queue.drain(this::render, BATCH_SIZE);
+
+            if (drained == 0) {
+                signal.idle(attempt++, hasWork, WakeupSignal.MAX_IDLE_NANOS);
+            } else {
+                attempt = 0;
+            }
+        }
+
+        // Producers that queued their event before they noticed the stop may still be storing it
+        synchronized (lifecycleLock) {
+            renderQueued();
+            terminated = true;
+        }
+    }
+
+    /**
+     * Renders events queued after the dispatcher thread stopped.
+     * If the dispatcher is still running, it renders them itself before it stops.
+     */
+    private void renderAfterStop() {
+        synchronized (lifecycleLock) {
+            if (terminated) {
+                renderQueued();
+            }
+        }
+    }
+
+    /**
+     * Renders all queued events, waiting for producers that did not store theirs yet. Must only be called by one thread at a time.
+     */
+    private void renderQueued() {
+        while (!queue.isEmpty()) {
+            if (queue.drain(this::render, BATCH_SIZE) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void render(@NotNull Event event) {
+        try {
+            event.logger().renderDeferred(event.level(), event.template(), event.args(), event.fields(), event.timestamp(), event.caller());
+        } catch (RuntimeException e) {
+            LoggerManager.internalLog("Failed to render deferred log event", e);
+        }
+    }
+
+    /**
+     * Stops the dispatcher thread after it rendered all queued events.
+     */
+    void stop() {
+        running = false;
+        signal.signal();
+
+        try {
+            dispatcher.join(3000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
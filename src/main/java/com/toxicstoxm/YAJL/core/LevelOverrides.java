@@ -0,0 +1,93 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Minimum log levels for specific log areas, parsed from {@code pattern=level} entries.
+ * <p>
+ * A pattern matches its area and all sub-areas, so {@code com.acme.db} applies to {@code com.acme.db.Pool} as well.
+ * Patterns ending in {@code *} match every area starting with the part before it, and {@code *} alone matches all areas.
+ * If several patterns match, the most specific one, the one with the longest literal part, wins.
+ * The level is either a level name like {@code DEBUG} or its numeric value.
+ * </p>
+ * <p>
+ * Overrides are resolved once per logger and config, see {@link Logger#isEnabled(com.toxicstoxm.YAJL.core.level.LogLevel)}.
+ * </p>
+ */
+public final class LevelOverrides {
+    public static final LevelOverrides NONE = new LevelOverrides(List.of());
+
+    private record Entry(String prefix, boolean wildcard, int level) {
+        private boolean matches(@NotNull String area) {
+            if (!area.startsWith(prefix)) return false;
+            return wildcard || area.length() == prefix.length() || area.charAt(prefix.length()) == '.';
+        }
+    }
+
+    /**
+     * Sorted from the most to the least specific pattern.
+     */
+    private final Entry[] overrides;
+
+    private LevelOverrides(@NotNull List<Entry> overrides) {
+        this.overrides = overrides.stream()
+                .sorted(Comparator.comparingInt((Entry o) -> o.prefix().length()).reversed()
+                        .thenComparing(Entry::wildcard))
+                .toArray(Entry[]::new);
+    }
+
+    /**
+     * Parses {@code pattern=level} entries. Invalid entries are reported through the internal log and skipped.
+     */
+    public static @NotNull LevelOverrides parse(@NotNull List<String> entries) {
+        if (entries.isEmpty()) return NONE;
+
+        List<Entry> overrides = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            int separator = entry.lastIndexOf('=');
+            Integer level = separator <= 0 ? null : parseLevel(entry.substring(separator + 1).trim());
+            if (level == null) {
+                LoggerManager.internalLog("Ignoring invalid level override '" + entry + "', expected 'pattern=level'");
+                continue;
+            }
+
+            String pattern = entry.substring(0, separator).trim();
+            boolean wildcard = pattern.endsWith("*");
+            overrides.add(new Entry(wildcard ? pattern.substring(0, pattern.length() - 1) : pattern, wildcard, level));
+        }
+        return new LevelOverrides(overrides);
+    }
+
+    private static @Nullable Integer parseLevel(@NotNull String level) {
+        try {
+            return Integer.parseInt(level);
+        } catch (NumberFormatException e) {
+            try {
+                return LogLevels.valueOf(level.toUpperCase(Locale.ROOT)).getLevel();
+            } catch (IllegalArgumentException ignored) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return the minimum level of the most specific pattern matching the area, or {@code defaultLevel} if none matches
+     */
+    public int resolve(@NotNull String area, int defaultLevel) {
+        for (Entry override : overrides) {
+            if (override.matches(area)) return override.level();
+        }
+        return defaultLevel;
+    }
+
+    public boolean isEmpty() {
+        return overrides.length == 0;
+    }
+}
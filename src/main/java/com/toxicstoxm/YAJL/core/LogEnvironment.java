@@ -2,11 +2,89 @@ package com.toxicstoxm.YAJL.core;
 
 import com.toxicstoxm.YAJL.core.level.LogLevel;
 import com.toxicstoxm.YAJL.util.CachingSupplier;
+import com.toxicstoxm.YAJL.util.tools.ColorTools;
 import com.toxicstoxm.YAJL.util.tools.TraceTools;
 
-public record LogEnvironment(
-        LogLevel level,
-        String message,
-        String prefix,
-        CachingSupplier<TraceTools.CallerInfo> callerInfo
-) {}
+import java.awt.Color;
+
+/**
+ * The event a layout is rendered for.
+ * <p>
+ * Instances created by the logger are reused for the next event of the same thread,
+ * so layout tokens must not keep a reference to the environment or its message after rendering.
+ * </p>
+ */
+public final class LogEnvironment {
+    private LogLevel level;
+    private CharSequence message;
+    private String messageString;
+    private String prefix;
+    private Color prefixColor;
+    private CachingSupplier<TraceTools.CallerInfo> callerInfo;
+    private long timestamp;
+    private LogFields fields;
+
+    public LogEnvironment(LogLevel level, String message, String prefix, CachingSupplier<TraceTools.CallerInfo> callerInfo, long timestamp, LogFields fields) {
+        set(level, message, prefix, null, callerInfo, timestamp, fields);
+    }
+
+    LogEnvironment() {}
+
+    void set(LogLevel level, CharSequence message, String prefix, Color prefixColor, CachingSupplier<TraceTools.CallerInfo> callerInfo, long timestamp, LogFields fields) {
+        this.level = level;
+        this.message = message;
+        this.messageString = message instanceof String string ? string : null;
+        this.prefix = prefix;
+        this.prefixColor = prefixColor;
+        this.callerInfo = callerInfo;
+        this.timestamp = timestamp;
+        this.fields = fields;
+    }
+
+    public LogLevel level() {
+        return level;
+    }
+
+    /**
+     * @return the formatted message, converted to a string on first access
+     */
+    public String message() {
+        if (messageString == null && message != null) {
+            messageString = message.toString();
+        }
+        return messageString;
+    }
+
+    /**
+     * @return the formatted message, without copying it into a string
+     */
+    public CharSequence messageText() {
+        return message;
+    }
+
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * @return the color derived from the prefix, precomputed by the logger
+     */
+    public Color prefixColor() {
+        if (prefixColor == null && prefix != null) {
+            prefixColor = ColorTools.randomColor(prefix);
+        }
+        return prefixColor;
+    }
+
+    public CachingSupplier<TraceTools.CallerInfo> callerInfo() {
+        return callerInfo;
+    }
+
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public LogFields fields() {
+        return fields;
+    }
+}
@@ -0,0 +1,74 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Collects typed key-value fields for a single structured log event, e.g.
+ * {@code logger.atInfo().kv("userId", id).kv("attempt", 3).log("Login failed")}.
+ * <p>
+ * Loggers return {@link #NOOP} if the level is disabled, so building a disabled event neither allocates
+ * nor stores any field. A builder logs at most once and must not be shared between threads.
+ * </p>
+ */
+public final class LogEventBuilder {
+    private static final Object[] NO_ARGS = {};
+
+    /**
+     * Builder returned for disabled levels. Ignores all fields and never logs.
+     */
+    public static final LogEventBuilder NOOP = new LogEventBuilder(null, null);
+
+    private final Logger logger;
+    private final LogLevel level;
+    private final LogFields fields;
+
+    LogEventBuilder(Logger logger, LogLevel level) {
+        this.logger = logger;
+        this.level = level;
+        this.fields = logger == null ? LogFields.EMPTY : new LogFields(4);
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull LogEventBuilder kv(@NotNull String key, Object value) {
+        if (logger != null) fields.add(key, value);
+        return this;
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull LogEventBuilder kv(@NotNull String key, long value) {
+        if (logger != null) fields.add(key, value);
+        return this;
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull LogEventBuilder kv(@NotNull String key, int value) {
+        if (logger != null) fields.add(key, value);
+        return this;
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull LogEventBuilder kv(@NotNull String key, double value) {
+        if (logger != null) fields.add(key, value);
+        return this;
+    }
+
+    @Contract("_, _ -> this")
+    public @NotNull LogEventBuilder kv(@NotNull String key, boolean value) {
+        if (logger != null) fields.add(key, value);
+        return this;
+    }
+
+    public boolean isEnabled() {
+        return logger != null;
+    }
+
+    public void log(@NotNull String message) {
+        if (logger != null) logger.log(level, message, NO_ARGS, fields);
+    }
+
+    public void log(@NotNull String message, Object... args) {
+        if (logger != null) logger.log(level, message, args, fields);
+    }
+}
@@ -0,0 +1,181 @@
+package com.toxicstoxm.YAJL.core;
+
+import com.toxicstoxm.YAJL.util.tools.StringTools;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Typed key-value fields attached to a single log event.
+ * <p>
+ * Primitive values are stored unboxed next to the keys and are only converted to text while the layout
+ * renders them, so attaching a field costs no formatting at log time.
+ * Fields are only added while an event is built, instances are not modified after the event was logged.
+ * </p>
+ */
+public final class LogFields {
+    public static final LogFields EMPTY = new LogFields(0);
+
+    /**
+     * How a field value is stored.
+     */
+    public enum Type {
+        OBJECT, LONG, DOUBLE, BOOLEAN
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final byte OBJECT = 0;
+    private static final byte LONG = 1;
+    private static final byte DOUBLE = 2;
+    private static final byte BOOLEAN = 3;
+
+    private String[] keys;
+    private Object[] objects;
+    private long[] primitives;
+    private byte[] types;
+    private int size;
+
+    public LogFields(int initialCapacity) {
+        keys = new String[initialCapacity];
+        objects = new Object[initialCapacity];
+        primitives = new long[initialCapacity];
+        types = new byte[initialCapacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public @NotNull String key(int index) {
+        return keys[index];
+    }
+
+    public @NotNull Type type(int index) {
+        return TYPES[types[index]];
+    }
+
+    public long longValue(int index) {
+        return primitives[index];
+    }
+
+    public double doubleValue(int index) {
+        return Double.longBitsToDouble(primitives[index]);
+    }
+
+    public boolean booleanValue(int index) {
+        return primitives[index] != 0;
+    }
+
+    /**
+     * @return the value of an {@link Type#OBJECT} field, with suppliers resolved
+     */
+    public Object value(int index) {
+        return resolve(objects[index]);
+    }
+
+    public void add(@NotNull String key, Object value) {
+        objects[grow(key, OBJECT)] = value;
+    }
+
+    public void add(@NotNull String key, long value) {
+        primitives[grow(key, LONG)] = value;
+    }
+
+    public void add(@NotNull String key, double value) {
+        primitives[grow(key, DOUBLE)] = Double.doubleToRawLongBits(value);
+    }
+
+    public void add(@NotNull String key, boolean value) {
+        primitives[grow(key, BOOLEAN)] = value ? 1 : 0;
+    }
+
+    private int grow(@NotNull String key, byte type) {
+        if (this == EMPTY) throw new UnsupportedOperationException("LogFields.EMPTY is immutable");
+
+        if (size == keys.length) {
+            int capacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        keys[size] = key;
+        types[size] = type;
+        return size++;
+    }
+
+    /**
+     * Copies the fields, replacing every {@link Type#OBJECT} value with the result of the operator.
+     * Used to snapshot values before the event is handed to another thread, this instance is left untouched.
+     */
+    @NotNull LogFields copy(@NotNull UnaryOperator<Object> operator) {
+        if (size == 0) return EMPTY;
+
+        LogFields copy = new LogFields(size);
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        System.arraycopy(primitives, 0, copy.primitives, 0, size);
+        System.arraycopy(types, 0, copy.types, 0, size);
+
+        for (int i = 0; i < size; i++) {
+            if (types[i] == OBJECT) {
+                copy.objects[i] = operator.apply(objects[i]);
+            }
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Appends the value as plain text. Suppliers are resolved, {@code null} is rendered as {@code null}.
+     */
+    public void appendValue(@NotNull StringBuilder out, int index) {
+        switch (types[index]) {
+            case LONG -> out.append(primitives[index]);
+            case DOUBLE -> out.append(Double.longBitsToDouble(primitives[index]));
+            case BOOLEAN -> out.append(primitives[index] != 0);
+            default -> out.append(resolve(objects[index]));
+        }
+    }
+
+    /**
+     * Appends the value as a JSON value. Numbers and booleans are written unquoted,
+     * non-finite doubles and all other values as escaped strings.
+     */
+    public void appendJsonValue(@NotNull StringBuilder out, int index) {
+        switch (types[index]) {
+            case LONG -> out.append(primitives[index]);
+            case DOUBLE -> {
+                double value = Double.longBitsToDouble(primitives[index]);
+                if (Double.isFinite(value)) {
+                    out.append(value);
+                } else {
+                    out.append('"').append(value).append('"');
+                }
+            }
+            case BOOLEAN -> out.append(primitives[index] != 0);
+            default -> {
+                Object value = resolve(objects[index]);
+                if (value == null) {
+                    out.append("null");
+                } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                        || value instanceof Short || value instanceof Byte) {
+                    out.append(value);
+                } else {
+                    out.append('"');
+                    StringTools.appendJsonEscaped(out, value instanceof CharSequence chars ? chars : String.valueOf(value));
+                    out.append('"');
+                }
+            }
+        }
+    }
+
+    private static Object resolve(Object value) {
+        return value instanceof Supplier<?> supplier ? supplier.get() : value;
+    }
+}
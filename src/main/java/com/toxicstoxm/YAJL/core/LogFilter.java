@@ -4,25 +4,79 @@ import lombok.Builder;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 
 /**
  * Log filter which can be used to filter the loggers based on their prefix / area.
+ * <p>
+ * Patterns are sorted by how they can be matched most cheaply:
+ * exact names go into a hash set, wildcard patterns into a prefix trie that matches in a single pass over the area,
+ * and only patterns written as {@code ^<regex>$} (or containing other regex syntax) are evaluated as regular expressions.
+ * Results are cached in a bounded cache, which evicts entries once it is full.
+ * </p>
  */
 public class LogFilter {
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+
+    /**
+     * Characters that make a pattern a regular expression, besides {@code .} and {@code *}, which wildcard patterns use.
+     */
+    private static final String REGEX_CHARACTERS = "[](){}+?|\\^$";
+
+    /**
+     * Number of entries removed at once when the cache is full, so eviction doesn't run on every miss.
+     */
+    private static final int EVICTION_BATCH = 16;
+
     private final ConcurrentHashMap<String, Boolean> cache = new ConcurrentHashMap<>();
+    private final int cacheCapacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Set<String> exactAreas = new HashSet<>();
+    private final TrieNode wildcardRoot = new TrieNode();
     private final List<Pattern> logAreaPatterns = new ArrayList<>();
     private final boolean blacklist;
 
-    @Builder
     public LogFilter(@NotNull List<String> logAreaFilters, boolean blacklist) {
+        this(logAreaFilters, blacklist, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * @param cacheCapacity maximum number of cached results, {@code 0} for {@link #DEFAULT_CACHE_CAPACITY}
+     */
+    @Builder
+    public LogFilter(@NotNull List<String> logAreaFilters, boolean blacklist, int cacheCapacity) {
         this.blacklist = blacklist;
-        this.logAreaPatterns.addAll(logAreaFilters.stream()
-                .map(LogFilter::convertWildcardToRegex)
-                .map(Pattern::compile)
-                .toList());
+        this.cacheCapacity = cacheCapacity > 0 ? cacheCapacity : DEFAULT_CACHE_CAPACITY;
+
+        for (String filter : logAreaFilters) {
+            if (filter.length() > 1 && filter.startsWith("^") && filter.endsWith("$")) {
+                logAreaPatterns.add(Pattern.compile(filter));
+            } else if (containsRegex(filter)) {
+                logAreaPatterns.add(Pattern.compile(convertWildcardToRegex(filter)));
+            } else if (filter.indexOf('*') == -1) {
+                exactAreas.add(filter);
+            } else {
+                wildcardRoot.insert(filter);
+            }
+        }
+    }
+
+    private static boolean containsRegex(@NotNull String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(pattern.charAt(i)) >= 0) return true;
+        }
+        return false;
     }
 
     /**
@@ -36,11 +90,120 @@ public class LogFilter {
      * Checks if a given log area is allowed based on filters.
      */
     public boolean isFiltered(String logArea) {
-        boolean isMatch = cache.computeIfAbsent(
-                logArea,
-                area -> logAreaPatterns.stream().anyMatch(p -> p.matcher(area).matches())
-        );
+        Boolean cached = cache.get(logArea);
+        if (cached != null) {
+            hits.increment();
+            return cached == blacklist;
+        }
+
+        misses.increment();
+        boolean isMatch = matches(logArea);
+        if (cache.size() >= cacheCapacity) {
+            evict();
+        }
+        cache.put(logArea, isMatch);
 
         return isMatch == blacklist;
     }
+
+    private boolean matches(@NotNull String area) {
+        if (exactAreas.contains(area) || wildcardRoot.matches(area)) return true;
+
+        for (Pattern pattern : logAreaPatterns) {
+            if (pattern.matcher(area).matches()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a batch of entries. The hash order of the cache makes this a random eviction,
+     * which keeps frequently checked areas cached with high probability without tracking any access order.
+     */
+    private void evict() {
+        Iterator<String> keys = cache.keySet().iterator();
+        for (int i = 0; i < EVICTION_BATCH && keys.hasNext(); i++) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * @return a snapshot of the result cache metrics
+     */
+    public @NotNull LogFilterStats getCacheStats() {
+        return new LogFilterStats(cache.size(), cacheCapacity, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Prefix trie of the wildcard patterns.
+     * Patterns ending in their only {@code *} mark the node of their prefix as matching everything below it.
+     * Other patterns are stored at the node of their literal prefix and are only checked against the rest of the area
+     * if the area reaches that node.
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private boolean matchesAll;
+        private final List<String> globs = new ArrayList<>();
+
+        private void insert(@NotNull String pattern) {
+            int wildcard = pattern.indexOf('*');
+
+            TrieNode node = this;
+            for (int i = 0; i < wildcard; i++) {
+                node = node.children.computeIfAbsent(pattern.charAt(i), _ -> new TrieNode());
+            }
+
+            if (wildcard == pattern.length() - 1) {
+                node.matchesAll = true;
+            } else {
+                node.globs.add(pattern.substring(wildcard));
+            }
+        }
+
+        private boolean matches(@NotNull String area) {
+            TrieNode node = this;
+            for (int i = 0; ; i++) {
+                if (node.matchesAll) return true;
+
+                for (String glob : node.globs) {
+                    if (globMatches(glob, area, i)) return true;
+                }
+
+                if (i == area.length()) return false;
+
+                node = node.children.get(area.charAt(i));
+                if (node == null) return false;
+            }
+        }
+    }
+
+    /**
+     * Matches {@code area} from {@code offset} against a pattern where {@code *} matches any sequence of characters.
+     * Backtracks only to the last {@code *}, so it runs in linear time for typical patterns.
+     */
+    private static boolean globMatches(@NotNull String glob, @NotNull String area, int offset) {
+        int p = 0;
+        int a = offset;
+        int star = -1;
+        int starMatch = 0;
+
+        while (a < area.length()) {
+            if (p < glob.length() && glob.charAt(p) == area.charAt(a)) {
+                p++;
+                a++;
+            } else if (p < glob.length() && glob.charAt(p) == '*') {
+                star = p++;
+                starMatch = a;
+            } else if (star != -1) {
+                p = star + 1;
+                a = ++starMatch;
+            } else {
+                return false;
+            }
+        }
+
+        while (p < glob.length() && glob.charAt(p) == '*') p++;
+        return p == glob.length();
+    }
 }
@@ -0,0 +1,26 @@
+package com.toxicstoxm.YAJL.core;
+
+/**
+ * Snapshot of the result cache metrics of a {@link LogFilter}.
+ *
+ * @param size number of cached log areas
+ * @param capacity maximum number of cached log areas
+ * @param hits checks answered from the cache
+ * @param misses checks that had to match the patterns
+ * @param evictions entries removed to make room for new ones
+ */
+public record LogFilterStats(
+        int size,
+        int capacity,
+        long hits,
+        long misses,
+        long evictions
+) {
+    /**
+     * @return the share of checks answered from the cache, from {@code 0} to {@code 1}
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,23 @@
+package com.toxicstoxm.YAJL.core;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Marks log arguments that are safe to format later, on a background thread.
+ * <p>
+ * With {@link LoggerConfig#isDeferredFormatting()} enabled, arguments are formatted after the log call returned.
+ * Arguments of unknown classes are converted to text on the logging thread, because they could change in the meantime.
+ * Immutable classes implement this interface as is, so they are kept by reference and only formatted later.
+ * Mutable classes override {@link #snapshot()} to return an immutable copy of their current state instead.
+ * </p>
+ */
+public interface Loggable {
+    /**
+     * Called on the logging thread when the argument is captured.
+     *
+     * @return the object to format later, {@code this} for immutable objects
+     */
+    default @NotNull Object snapshot() {
+        return this;
+    }
+}
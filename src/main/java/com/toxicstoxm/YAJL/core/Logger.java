@@ -2,82 +2,514 @@ package com.toxicstoxm.YAJL.core;
 
 import com.toxicstoxm.YAJL.core.level.LogLevel;
 import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.io.AppenderBinding;
+import com.toxicstoxm.YAJL.io.LogFileManager;
+import com.toxicstoxm.YAJL.io.LogLine;
 import com.toxicstoxm.YAJL.layout.CompiledLayout;
 import com.toxicstoxm.YAJL.layout.LayoutToken;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
 import com.toxicstoxm.YAJL.util.CachingSupplier;
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
 import com.toxicstoxm.YAJL.util.tools.ColorTools;
 import com.toxicstoxm.YAJL.util.tools.TraceTools;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.PrintStream;
+import java.awt.Color;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Supplier;
 
 public class Logger {
+    private static final Object[] NO_ARGS = {};
+    private static final RenderContext COLORED = new RenderContext(true);
+    private static final RenderContext PLAIN = new RenderContext(false);
+
     private final String logArea;
     private final String logPrefix;
+    private final Color prefixColor;
+
+    /**
+     * Effective minimum level and filter decision of this logger, resolved for a specific config generation.
+     * Records only have final fields, so the state can be replaced without locking and is never observed half-initialized.
+     */
+    private record LevelState(int generation, long minimumLevel, boolean filtered) {}
+
+    private LevelState levelState = new LevelState(-1, Long.MAX_VALUE, false);
 
     protected Logger(String area, String prefix) {
         this.logArea = area;
         this.logPrefix = prefix;
+        this.prefixColor = ColorTools.randomColor(prefix);
     }
 
     public void log(@NotNull String message, Object... args) {
         log(LoggerManager.getSettings().getDefaultLogLevel(), message, args);
     }
 
-    public boolean shouldSkipLog(LogLevel level) {
+    /**
+     * Returns the minimum level a message needs to be logged by this logger.
+     * Muted or filtered loggers resolve to {@link Long#MAX_VALUE}, so no level passes.
+     * A level override matching the area of this logger replaces the global minimum level.
+     * The value is only recomputed after {@link LoggerManager} published a new config.
+     */
+    private long minimumLevel() {
+        LevelState state = levelState;
+        if (state.generation() != LoggerManager.getConfigGeneration()) {
+            state = resolveLevelState();
+        }
+        return state.minimumLevel();
+    }
+
+    private @NotNull LevelState resolveLevelState() {
+        // Read the generation before the settings, so a config published in between triggers another refresh
+        int generation = LoggerManager.getConfigGeneration();
         LoggerConfig settings = LoggerManager.getSettings();
 
-        return settings.isMuteLogger() ||
-                settings.getLogFilter().isFiltered(logArea) ||
-                level.getLevel() < settings.getMinimumLogLevel();
+        boolean filtered = settings.getLogFilter().isFiltered(logArea);
+        long minimumLevel = settings.isMuteLogger() || filtered
+                ? Long.MAX_VALUE
+                : LoggerManager.getLevelOverrides().resolve(logArea, settings.getMinimumLogLevel());
+
+        LevelState state = new LevelState(generation, minimumLevel, filtered);
+        levelState = state;
+        return state;
+    }
+
+    /**
+     * Resolves the state of this logger for the current config, if it isn't already.
+     * Called for all registered loggers when a new config is published.
+     */
+    void refreshState() {
+        if (levelState.generation() != LoggerManager.getConfigGeneration()) {
+            resolveLevelState();
+        }
+    }
+
+    /**
+     * @return whether the log filter of the current config disables this logger
+     */
+    public boolean isFiltered() {
+        minimumLevel();
+        return levelState.filtered();
+    }
+
+    public boolean isEnabled(@NotNull LogLevel level) {
+        return level.getLevel() >= minimumLevel();
+    }
+
+    public boolean shouldSkipLog(LogLevel level) {
+        return !isEnabled(level);
+    }
+
+    public boolean isStacktraceEnabled() {
+        return LogLevels.STACKTRACE.getLevel() >= minimumLevel();
+    }
+
+    public boolean isVerboseEnabled() {
+        return LogLevels.VERBOSE.getLevel() >= minimumLevel();
+    }
+
+    public boolean isDebugEnabled() {
+        return LogLevels.DEBUG.getLevel() >= minimumLevel();
+    }
+
+    public boolean isInfoEnabled() {
+        return LogLevels.INFO.getLevel() >= minimumLevel();
+    }
+
+    public boolean isWarnEnabled() {
+        return LogLevels.WARN.getLevel() >= minimumLevel();
+    }
+
+    public boolean isErrorEnabled() {
+        return LogLevels.ERROR.getLevel() >= minimumLevel();
+    }
+
+    public boolean isFatalEnabled() {
+        return LogLevels.FATAL.getLevel() >= minimumLevel();
+    }
+
+    public void log(@NotNull LogLevel level, @NotNull String message) {
+        log(level, message, NO_ARGS);
     }
 
     public void log(@NotNull LogLevel level, @NotNull String message, Object... args) {
+        log(level, message, args, LogFields.EMPTY);
+    }
+
+    // The fixed-arity methods pass their arguments in a reused array, so they don't allocate a varargs array per event
+    private void logArguments(@NotNull LogLevel level, @NotNull String message, Object arg) {
+        Object[] args = ArgumentArrays.acquire(1);
+        args[0] = arg;
+        logArguments(level, message, args);
+    }
+
+    private void logArguments(@NotNull LogLevel level, @NotNull String message, Object arg1, Object arg2) {
+        Object[] args = ArgumentArrays.acquire(2);
+        args[0] = arg1;
+        args[1] = arg2;
+        logArguments(level, message, args);
+    }
+
+    private void logArguments(@NotNull LogLevel level, @NotNull String message, Object arg1, Object arg2, Object arg3) {
+        Object[] args = ArgumentArrays.acquire(3);
+        args[0] = arg1;
+        args[1] = arg2;
+        args[2] = arg3;
+        logArguments(level, message, args);
+    }
+
+    private void logArguments(@NotNull LogLevel level, @NotNull String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        Object[] args = ArgumentArrays.acquire(4);
+        args[0] = arg1;
+        args[1] = arg2;
+        args[2] = arg3;
+        args[3] = arg4;
+        logArguments(level, message, args);
+    }
+
+    private void logArguments(@NotNull LogLevel level, @NotNull String message, Object @NotNull [] args) {
+        try {
+            log(level, message, args, LogFields.EMPTY);
+        } finally {
+            ArgumentArrays.release(args);
+        }
+    }
+
+    /**
+     * Per-thread argument arrays for the fixed-arity log methods.
+     * Arguments are only read while the event is logged, the deferred formatter and binary log files copy what they keep.
+     * Nested log calls and virtual threads get fresh arrays, like {@link RenderBuffers}.
+     */
+    private static final class ArgumentArrays {
+        private static final ThreadLocal<ArgumentArrays> ARRAYS = ThreadLocal.withInitial(ArgumentArrays::new);
+
+        private final Object[][] arrays = {new Object[0], new Object[1], new Object[2], new Object[3], new Object[4]};
+        private boolean inUse;
+
+        private static Object @NotNull [] acquire(int length) {
+            if (Thread.currentThread().isVirtual()) {
+                return new Object[length];
+            }
+
+            ArgumentArrays arrays = ARRAYS.get();
+            if (arrays.inUse) {
+                return new Object[length];
+            }
+
+            arrays.inUse = true;
+            return arrays.arrays[length];
+        }
+
+        private static void release(Object @NotNull [] args) {
+            if (Thread.currentThread().isVirtual()) return;
+
+            ArgumentArrays arrays = ARRAYS.get();
+            if (arrays.arrays[args.length] != args) return;
+
+            // don't keep the arguments reachable
+            Arrays.fill(args, null);
+            arrays.inUse = false;
+        }
+    }
+
+    /**
+     * Starts a structured event at the given level.
+     *
+     * @return a builder collecting the fields of the event, or {@link LogEventBuilder#NOOP} if the level is disabled
+     */
+    public @NotNull LogEventBuilder atLevel(@NotNull LogLevel level) {
+        return isEnabled(level) ? new LogEventBuilder(this, level) : LogEventBuilder.NOOP;
+    }
+
+    public @NotNull LogEventBuilder atStacktrace() {
+        return atLevel(LogLevels.STACKTRACE);
+    }
+
+    public @NotNull LogEventBuilder atVerbose() {
+        return atLevel(LogLevels.VERBOSE);
+    }
+
+    public @NotNull LogEventBuilder atDebug() {
+        return atLevel(LogLevels.DEBUG);
+    }
+
+    public @NotNull LogEventBuilder atInfo() {
+        return atLevel(LogLevels.INFO);
+    }
+
+    public @NotNull LogEventBuilder atWarn() {
+        return atLevel(LogLevels.WARN);
+    }
+
+    public @NotNull LogEventBuilder atError() {
+        return atLevel(LogLevels.ERROR);
+    }
+
+    public @NotNull LogEventBuilder atFatal() {
+        return atLevel(LogLevels.FATAL);
+    }
+
+    void log(@NotNull LogLevel level, @NotNull String message, Object @NotNull [] args, @NotNull LogFields fields) {
         if (shouldSkipLog(level)) return;
 
-        if (args.length > 0 && message.contains("{}")) {
-            message = formatMessage(message, args);
+        LogMetrics.countEvent(level);
+        long start = LogMetrics.sample() ? System.nanoTime() : 0;
+
+        AppenderPipeline pipeline = LoggerManager.getAppenderPipeline();
+
+        // Binary log files store the template and arguments, so they never pay for formatting
+        LogFileManager binaryLog = pipeline.binaryLog();
+        if (binaryLog != null) {
+            binaryLog.appendBinary(level, logPrefix, message, args, fields);
         }
 
-        if (message.contains("\n")) {
-            for (String subMessage : message.split("\n")) {
-                if (subMessage.isEmpty()) continue;
-                log(level, subMessage);
+        if (pipeline.bindings().length > 0) {
+            ClockSource clock = LoggerManager.getSettings().getClockSource();
+
+            // With deferred formatting, the dispatcher thread formats and renders, unless it is stopping
+            DeferredDispatcher dispatcher = LoggerManager.getDeferredDispatcher();
+            if (dispatcher == null
+                    || !dispatcher.offer(this, level, message, args, fields, clock.now(), LoggerManager.getCompiledLayout().showsCaller())) {
+                render(pipeline, level, message, args, fields, clock.eventTimestamp(), null, start);
             }
-            return;
         }
 
-        CompiledLayout layout = LoggerManager.getCompiledLayout();
-        RenderContext colored = new RenderContext(true);
-        RenderContext plain = new RenderContext(false);
+        if (start != 0) {
+            LogMetrics.recordLog(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Formats and renders an event captured by the {@link DeferredDispatcher}, on its thread.
+     *
+     * @param timestamp the time the event was logged at
+     * @param caller the caller captured on the logging thread, {@code null} if the layout doesn't show it
+     */
+    void renderDeferred(@NotNull LogLevel level, @NotNull String template, Object @NotNull [] args, @NotNull LogFields fields,
+                        long timestamp, TraceTools.CallerInfo caller) {
+        render(LoggerManager.getAppenderPipeline(), level, template, args, fields, timestamp, caller, 0);
+    }
 
-        LogEnvironment env = new LogEnvironment(level, message, logPrefix, new CachingSupplier<>(TraceTools::getCaller));
+    /**
+     * Formats the message into the reusable event of the current thread and passes it to the appenders of the pipeline.
+     *
+     * @param timestamp the event timestamp, {@code 0} to let the clock source read the time while rendering
+     * @param caller the caller if it is already known, {@code null} to look it up if the layout shows it
+     */
+    private void render(@NotNull AppenderPipeline pipeline, @NotNull LogLevel level, @NotNull String template, Object @NotNull [] args,
+                        @NotNull LogFields fields, long timestamp, TraceTools.CallerInfo caller, long start) {
+        RenderBuffers buffers = RenderBuffers.acquire();
+        try {
+            CharSequence message = template;
+            if (args.length > 0 && template.contains("{}")) {
+                formatMessage(buffers.message, template, args);
+                message = buffers.message;
+            }
+
+            if (caller != null) {
+                buffers.caller.set(caller);
+            }
 
-        String finalMessage = renderLayout(layout.getTokens(), env, colored);
-        if (layout.isColored()) {
-            finalMessage += ColorTools.ANSI_RESET;
+            CompiledLayout layout = LoggerManager.getCompiledLayout();
+
+            if (indexOf(message, '\n') < 0) {
+                renderLine(pipeline, buffers, layout, level, message, fields, timestamp);
+                recordRender(start);
+                write(pipeline, buffers, level);
+                return;
+            }
+
+            appendLines(pipeline, buffers, layout, level, message, fields, timestamp, start);
+        } finally {
+            buffers.release();
+        }
+    }
+
+    /**
+     * Renders every non-empty line of a multi-line message with the layout.
+     * Line boundaries are found in place, and the timestamp is read once, so all lines of the event show the same time.
+     * With {@link LoggerConfig#isAtomicMultiLineMessages()}, all lines are passed to the appenders as a single block,
+     * so they can't interleave with lines of other threads.
+     */
+    private void appendLines(@NotNull AppenderPipeline pipeline, @NotNull RenderBuffers buffers, @NotNull CompiledLayout layout, @NotNull LogLevel level,
+                             @NotNull CharSequence message, @NotNull LogFields fields, long timestamp, long start) {
+        LoggerConfig settings = LoggerManager.getSettings();
+        boolean atomic = settings.isAtomicMultiLineMessages();
+        long eventTimestamp = settings.getClockSource().timestamp(timestamp);
+
+        StringBuilder text = buffers.lineText;
+        int length = message.length();
+        int lineStart = 0;
+
+        for (int i = 0; i <= length; i++) {
+            if (i < length && message.charAt(i) != '\n') continue;
+
+            if (i > lineStart) {
+                text.setLength(0);
+                text.append(message, lineStart, i);
+                renderLine(pipeline, buffers, layout, level, text, fields, eventTimestamp);
+
+                if (!atomic) {
+                    write(pipeline, buffers, level);
+                }
+            }
+            lineStart = i + 1;
         }
 
-        for (PrintStream output : LoggerManager.getSettings().getOutputs()) {
-            output.println(finalMessage);
+        recordRender(start);
+        if (atomic) {
+            write(pipeline, buffers, level);
         }
+    }
 
-        if (LoggerManager.getSettings().isEnableLogFiles()) {
-            final String plainMessage = renderLayout(layout.getTokens(), env, plain);
+    private static int indexOf(@NotNull CharSequence text, char c) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
 
-            LoggerManager.writeLogFile(plainMessage);
+    private static void recordRender(long start) {
+        if (start != 0) {
+            LogMetrics.recordRender(System.nanoTime() - start);
         }
     }
 
-    private static @NotNull String formatMessage(@NotNull String message, Object @NotNull [] args) {
+    /**
+     * Renders a single line of the formatted message and appends it to the encoded lines of the buffers.
+     */
+    private void renderLine(@NotNull AppenderPipeline pipeline, @NotNull RenderBuffers buffers, @NotNull CompiledLayout layout, @NotNull LogLevel level,
+                            @NotNull CharSequence message, @NotNull LogFields fields, long timestamp) {
+        LogEnvironment env = buffers.env;
+        env.set(level, message, logPrefix, prefixColor, buffers.caller, timestamp, fields);
+
+        StringBuilder line = buffers.line;
+        StringBuilder plainLine = buffers.plainLine;
+        line.setLength(0);
+        plainLine.setLength(0);
+
+        if (pipeline.anyColored() && pipeline.anyPlain()) {
+            renderLayout(layout.getTokens(), env, line, plainLine);
+        } else if (pipeline.anyColored()) {
+            renderLayout(layout.getTokens(), env, COLORED, line);
+        } else {
+            renderLayout(layout.getTokens(), env, PLAIN, plainLine);
+        }
+
+        if (pipeline.anyColored()) {
+            if (layout.isColored()) {
+                line.append(ColorTools.ANSI_RESET);
+            }
+            buffers.colored.getBytes().append(line).appendLineSeparator();
+        }
+
+        if (pipeline.anyPlain()) {
+            buffers.plain.getBytes().append(plainLine).appendLineSeparator();
+        }
+    }
+
+    /**
+     * Passes the encoded lines to the appenders of the pipeline and clears them.
+     */
+    private void write(@NotNull AppenderPipeline pipeline, @NotNull RenderBuffers buffers, @NotNull LogLevel level) {
+        buffers.colored.set(level, logArea);
+        buffers.plain.set(level, logArea);
+
+        AppenderBinding[] bindings = pipeline.bindings();
+        for (int i = 0; i < bindings.length; i++) {
+            AppenderBinding binding = bindings[i];
+            if (!binding.accepts(level, logArea)) continue;
+
+            binding.appender().append(pipeline.isColored(i) ? buffers.colored : buffers.plain);
+        }
+
+        buffers.colored.getBytes().reset();
+        buffers.plain.getBytes().reset();
+    }
+
+    /**
+     * Per-thread event and buffers the current log line is formatted, rendered and encoded into.
+     * Their capacity is kept between events, unless a single huge message blew them up.
+     * <p>
+     * If the buffers of the thread are still in use, because formatting an argument or an appender logged again,
+     * the nested event gets buffers of its own. Virtual threads never keep buffers, as there may be millions of them.
+     * </p>
+     */
+    private static final class RenderBuffers {
+        private static final int INITIAL_CAPACITY = 256;
+        private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+        private static final ThreadLocal<RenderBuffers> BUFFERS = ThreadLocal.withInitial(RenderBuffers::new);
+
+        private final LogEnvironment env = new LogEnvironment();
+        private final CachingSupplier<TraceTools.CallerInfo> caller = new CachingSupplier<>(TraceTools::getCaller);
+        private StringBuilder message = new StringBuilder(INITIAL_CAPACITY);
+        private StringBuilder lineText = new StringBuilder(INITIAL_CAPACITY);
+        private StringBuilder line = new StringBuilder(INITIAL_CAPACITY);
+        private StringBuilder plainLine = new StringBuilder(INITIAL_CAPACITY);
+        private final LogLine colored = new LogLine(new Utf8Buffer(INITIAL_CAPACITY));
+        private final LogLine plain = new LogLine(new Utf8Buffer(INITIAL_CAPACITY));
+        private boolean inUse;
+
+        private static @NotNull RenderBuffers acquire() {
+            if (Thread.currentThread().isVirtual()) {
+                return new RenderBuffers();
+            }
+
+            RenderBuffers buffers = BUFFERS.get();
+            if (buffers.inUse) {
+                return new RenderBuffers();
+            }
+
+            buffers.inUse = true;
+            buffers.message.setLength(0);
+            buffers.caller.reset();
+            buffers.colored.getBytes().reset();
+            buffers.plain.getBytes().reset();
+            return buffers;
+        }
+
+        private void release() {
+            if (message.capacity() > MAX_RETAINED_CAPACITY) {
+                message = new StringBuilder(INITIAL_CAPACITY);
+            }
+            if (lineText.capacity() > MAX_RETAINED_CAPACITY) {
+                lineText = new StringBuilder(INITIAL_CAPACITY);
+            }
+            if (line.capacity() > MAX_RETAINED_CAPACITY) {
+                line = new StringBuilder(INITIAL_CAPACITY);
+            }
+            if (plainLine.capacity() > MAX_RETAINED_CAPACITY) {
+                plainLine = new StringBuilder(INITIAL_CAPACITY);
+            }
+            colored.getBytes().reset(MAX_RETAINED_CAPACITY);
+            plain.getBytes().reset(MAX_RETAINED_CAPACITY);
+
+            // don't keep the last event reachable
+            env.set(null, null, null, null, null, 0, null);
+            inUse = false;
+        }
+    }
+
+    /**
+     * Replaces each {@code {}} in the message with the next argument. Suppliers are resolved, an escaped {@code \{}} is kept as {@code {}}.
+     */
+    public static @NotNull String formatMessage(@NotNull String message, Object @NotNull [] args) {
         if (args.length == 0 || message.indexOf('{') == -1) {
             return message;
         }
 
         StringBuilder sb = new StringBuilder(message.length() + 16 * args.length);
+        formatMessage(sb, message, args);
+        return sb.toString();
+    }
 
+    /**
+     * Same as {@link #formatMessage(String, Object[])}, but appends the formatted message to {@code out}.
+     */
+    public static void formatMessage(@NotNull StringBuilder out, @NotNull String message, Object @NotNull [] args) {
         int argIndex = 0;
         int i = 0;
         int len = message.length();
@@ -89,13 +521,13 @@ public class Logger {
             if (c == '\\') {
                 if (i + 2 < len && message.charAt(i + 1) == '{' && message.charAt(i + 2) == '}') {
                     // Escaped placeholder → emit "{}"
-                    sb.append("{}");
+                    out.append("{}");
                     i += 3;
                     continue;
                 }
 
                 // Just a normal backslash
-                sb.append(c);
+                out.append(c);
                 i++;
                 continue;
             }
@@ -107,76 +539,201 @@ public class Logger {
                     if (arg instanceof Supplier supplier) {
                         arg = supplier.get();
                     }
-                    sb.append(arg == null ? "null" : arg);
+                    appendArgument(out, arg);
                 } else {
-                    sb.append("{}");
+                    out.append("{}");
                 }
                 i += 2;
                 continue;
             }
 
             // Normal character
-            sb.append(c);
+            out.append(c);
             i++;
         }
+    }
 
-        return sb.toString();
+    /**
+     * Appends common argument types without converting them to a string first.
+     */
+    private static void appendArgument(@NotNull StringBuilder out, Object arg) {
+        if (arg instanceof CharSequence text) {
+            out.append(text);
+        } else if (arg instanceof Integer value) {
+            out.append(value.intValue());
+        } else if (arg instanceof Long value) {
+            out.append(value.longValue());
+        } else if (arg instanceof Double value) {
+            out.append(value.doubleValue());
+        } else if (arg instanceof Boolean value) {
+            out.append(value.booleanValue());
+        } else {
+            out.append(arg);
+        }
     }
 
     public static @NotNull String renderLayout(@NotNull List<LayoutToken> tokens, LogEnvironment env, RenderContext context) {
         StringBuilder sb = new StringBuilder();
+        renderLayout(tokens, env, context, sb);
+        return sb.toString();
+    }
 
+    public static void renderLayout(@NotNull List<LayoutToken> tokens, LogEnvironment env, RenderContext context, @NotNull StringBuilder out) {
         for (LayoutToken token : tokens) {
-            token.append(sb, env, context);
+            token.append(out, env, context);
         }
+    }
 
-        return sb.toString();
+    /**
+     * Renders the colored and the plain variant of a layout in a single pass.
+     * Every token is evaluated once. Its colored output is copied to the plain line, except for color segments,
+     * which are left out of the plain line entirely.
+     *
+     * @param tokens the compiled layout tokens
+     * @param env the log environment to render
+     * @param colored receives the colored line
+     * @param plain receives the plain line
+     */
+    public static void renderLayout(@NotNull List<LayoutToken> tokens, LogEnvironment env, @NotNull StringBuilder colored, @NotNull StringBuilder plain) {
+        for (LayoutToken token : tokens) {
+            if (token.isColorSegment()) {
+                token.append(colored, env, COLORED);
+                continue;
+            }
+            int start = colored.length();
+            token.append(colored, env, COLORED);
+            plain.append(colored, start, colored.length());
+        }
     }
 
     public void stacktrace(String message) {
-        log(LogLevels.STACKTRACE, message);
+        if (isStacktraceEnabled()) log(LogLevels.STACKTRACE, message, NO_ARGS);
+    }
+    public void stacktrace(String message, Object arg) {
+        if (isStacktraceEnabled()) logArguments(LogLevels.STACKTRACE, message, arg);
+    }
+    public void stacktrace(String message, Object arg1, Object arg2) {
+        if (isStacktraceEnabled()) logArguments(LogLevels.STACKTRACE, message, arg1, arg2);
+    }
+    public void stacktrace(String message, Object arg1, Object arg2, Object arg3) {
+        if (isStacktraceEnabled()) logArguments(LogLevels.STACKTRACE, message, arg1, arg2, arg3);
+    }
+    public void stacktrace(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isStacktraceEnabled()) logArguments(LogLevels.STACKTRACE, message, arg1, arg2, arg3, arg4);
     }
     public void stacktrace(String message, Object... args) {
         log(LogLevels.STACKTRACE, message, args);
     }
 
     public void verbose(String message) {
-        log(LogLevels.VERBOSE, message);
+        if (isVerboseEnabled()) log(LogLevels.VERBOSE, message, NO_ARGS);
+    }
+    public void verbose(String message, Object arg) {
+        if (isVerboseEnabled()) logArguments(LogLevels.VERBOSE, message, arg);
+    }
+    public void verbose(String message, Object arg1, Object arg2) {
+        if (isVerboseEnabled()) logArguments(LogLevels.VERBOSE, message, arg1, arg2);
+    }
+    public void verbose(String message, Object arg1, Object arg2, Object arg3) {
+        if (isVerboseEnabled()) logArguments(LogLevels.VERBOSE, message, arg1, arg2, arg3);
+    }
+    public void verbose(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isVerboseEnabled()) logArguments(LogLevels.VERBOSE, message, arg1, arg2, arg3, arg4);
     }
     public void verbose(String message, Object... args) {
         log(LogLevels.VERBOSE, message, args);
     }
 
     public void debug(String message) {
-        log(LogLevels.DEBUG, message);
+        if (isDebugEnabled()) log(LogLevels.DEBUG, message, NO_ARGS);
+    }
+    public void debug(String message, Object arg) {
+        if (isDebugEnabled()) logArguments(LogLevels.DEBUG, message, arg);
+    }
+    public void debug(String message, Object arg1, Object arg2) {
+        if (isDebugEnabled()) logArguments(LogLevels.DEBUG, message, arg1, arg2);
+    }
+    public void debug(String message, Object arg1, Object arg2, Object arg3) {
+        if (isDebugEnabled()) logArguments(LogLevels.DEBUG, message, arg1, arg2, arg3);
+    }
+    public void debug(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isDebugEnabled()) logArguments(LogLevels.DEBUG, message, arg1, arg2, arg3, arg4);
     }
     public void debug(String message, Object... args) {
         log(LogLevels.DEBUG, message, args);
     }
 
     public void info(String message) {
-        log(LogLevels.INFO, message);
+        if (isInfoEnabled()) log(LogLevels.INFO, message, NO_ARGS);
+    }
+    public void info(String message, Object arg) {
+        if (isInfoEnabled()) logArguments(LogLevels.INFO, message, arg);
+    }
+    public void info(String message, Object arg1, Object arg2) {
+        if (isInfoEnabled()) logArguments(LogLevels.INFO, message, arg1, arg2);
+    }
+    public void info(String message, Object arg1, Object arg2, Object arg3) {
+        if (isInfoEnabled()) logArguments(LogLevels.INFO, message, arg1, arg2, arg3);
+    }
+    public void info(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isInfoEnabled()) logArguments(LogLevels.INFO, message, arg1, arg2, arg3, arg4);
     }
     public void info(String message, Object... args) {
         log(LogLevels.INFO, message, args);
     }
 
     public void warn(String message) {
-        log(LogLevels.WARN, message);
+        if (isWarnEnabled()) log(LogLevels.WARN, message, NO_ARGS);
+    }
+    public void warn(String message, Object arg) {
+        if (isWarnEnabled()) logArguments(LogLevels.WARN, message, arg);
+    }
+    public void warn(String message, Object arg1, Object arg2) {
+        if (isWarnEnabled()) logArguments(LogLevels.WARN, message, arg1, arg2);
+    }
+    public void warn(String message, Object arg1, Object arg2, Object arg3) {
+        if (isWarnEnabled()) logArguments(LogLevels.WARN, message, arg1, arg2, arg3);
+    }
+    public void warn(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isWarnEnabled()) logArguments(LogLevels.WARN, message, arg1, arg2, arg3, arg4);
     }
     public void warn(String message, Object... args) {
         log(LogLevels.WARN, message, args);
     }
 
     public void error(String message) {
-        log(LogLevels.ERROR, message);
+        if (isErrorEnabled()) log(LogLevels.ERROR, message, NO_ARGS);
+    }
+    public void error(String message, Object arg) {
+        if (isErrorEnabled()) logArguments(LogLevels.ERROR, message, arg);
+    }
+    public void error(String message, Object arg1, Object arg2) {
+        if (isErrorEnabled()) logArguments(LogLevels.ERROR, message, arg1, arg2);
+    }
+    public void error(String message, Object arg1, Object arg2, Object arg3) {
+        if (isErrorEnabled()) logArguments(LogLevels.ERROR, message, arg1, arg2, arg3);
+    }
+    public void error(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isErrorEnabled()) logArguments(LogLevels.ERROR, message, arg1, arg2, arg3, arg4);
     }
     public void error(String message, Object... args) {
         log(LogLevels.ERROR, message, args);
     }
 
     public void fatal(String message) {
-        log(LogLevels.FATAL, message);
+        if (isFatalEnabled()) log(LogLevels.FATAL, message, NO_ARGS);
+    }
+    public void fatal(String message, Object arg) {
+        if (isFatalEnabled()) logArguments(LogLevels.FATAL, message, arg);
+    }
+    public void fatal(String message, Object arg1, Object arg2) {
+        if (isFatalEnabled()) logArguments(LogLevels.FATAL, message, arg1, arg2);
+    }
+    public void fatal(String message, Object arg1, Object arg2, Object arg3) {
+        if (isFatalEnabled()) logArguments(LogLevels.FATAL, message, arg1, arg2, arg3);
+    }
+    public void fatal(String message, Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (isFatalEnabled()) logArguments(LogLevels.FATAL, message, arg1, arg2, arg3, arg4);
     }
     public void fatal(String message, Object... args) {
         log(LogLevels.FATAL, message, args);
@@ -2,6 +2,14 @@ package com.toxicstoxm.YAJL.core;
 
 import com.toxicstoxm.YAJL.core.level.LogLevel;
 import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.io.AppenderBinding;
+import com.toxicstoxm.YAJL.io.DurabilityMode;
+import com.toxicstoxm.YAJL.io.LogQueueType;
+import com.toxicstoxm.YAJL.io.OverflowPolicy;
+import com.toxicstoxm.YAJL.io.RotationBoundary;
+import com.toxicstoxm.YAJL.io.WaitStrategy;
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.ColorDepth;
 import com.toxicstoxm.YAJSI.YAMLSetting;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,7 +25,7 @@ public class LoggerConfig {
     @Contract(value = " -> new", pure = true)
     public static @NotNull LoggerConfig getDefaults() {
         LoggerConfig conf = LoggerConfig.builder().done();
-        conf.logFilter = new LogFilter(List.copyOf(conf.logAreaFilterPatterns), conf.filterPatternsAsBlacklist);
+        conf.logFilter = new LogFilter(List.copyOf(conf.logAreaFilterPatterns), conf.filterPatternsAsBlacklist, conf.logFilterCacheSize);
         return conf;
     }
 
@@ -25,6 +33,61 @@ public class LoggerConfig {
     @YAMLSetting.Ignore
     private List<PrintStream> outputs = List.of(System.out);
 
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private List<AppenderBinding> appenders = List.of();
+
+    @Builder.Default
+    @YAMLSetting(name = "Async-Console-Output", comments = {
+            "If true, console output is written by a dedicated background thread.",
+            "Logging threads only hand the rendered line over, so they never wait for a slow terminal or pipe.",
+            "Pending lines are written when the application shuts down."
+    })
+    private boolean asyncConsoleOutput = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Async-Console-Buffer-Size", comments = {
+            "Number of log lines the async console output can buffer.",
+            "Rounded up to the next power of two."
+    })
+    private int asyncConsoleBufferSize = 8192;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private WaitStrategy asyncConsoleWaitStrategy = WaitStrategy.PARK;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private OverflowPolicy asyncConsoleOverflowPolicy = OverflowPolicy.BLOCK;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private LogLevel asyncConsoleDropThreshold = LogLevels.WARN;
+
+    @Builder.Default
+    @YAMLSetting(name = "Atomic-Multi-Line-Messages", comments = {
+            "If true, all lines of a multi-line message are written as one block,",
+            "so they never interleave with log lines of other threads.",
+            "If false, every line is written on its own, as soon as it is rendered."
+    })
+    private boolean atomicMultiLineMessages = true;
+
+    @Builder.Default
+    @YAMLSetting(name = "Deferred-Formatting", comments = {
+            "If true, messages are formatted and rendered by a dedicated background thread.",
+            "Logging threads only capture the message template and its arguments.",
+            "Arguments that could change in the meantime are converted to text right away, unless they implement Loggable.",
+            "Suppliers passed as arguments are called on the background thread."
+    })
+    private boolean deferredFormatting = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Deferred-Formatting-Buffer-Size", comments = {
+            "Number of log events the background formatter can buffer.",
+            "If it is full, logging threads wait for space, so their events stay in order. Rounded up to the next power of two."
+    })
+    private int deferredFormattingBufferSize = 8192;
+
     @Builder.Default
     private boolean internalLog = true;
 
@@ -53,12 +116,26 @@ public class LoggerConfig {
     })
     private int minimumLogLevel = 0;
 
+    @Builder.Default
+    @YAMLSetting(name = "Level-Overrides", comments = {
+            "Minimum log levels for specific loggers, as 'pattern=level' entries. The level is a name or its value.",
+            "A pattern applies to its logger and all loggers below it: 'com.acme.db=DEBUG' also enables debug logs of 'com.acme.db.Pool'.",
+            "Patterns ending in '*' match every logger starting with the part before it.",
+            "If several patterns match, the most specific one wins. Loggers without a match use the Minimum-Log-Level.",
+            "Example: ['com.acme.db=DEBUG', 'com.acme.db.Pool=WARN']"
+    })
+    private List<String> levelOverrides = List.of();
+
     @Builder.Default
     @YAMLSetting(name = "Enable-Color-Coding", comments = {
             "If true, log messages will be color-coded for better readability."
     })
     private boolean enableColorCoding = true;
 
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private ColorDepth colorDepth = ColorDepth.TRUECOLOR;
+
     @Builder.Default
     @YAMLSetting(name = "Mute-Logger", comments = {
             "If true, logging will be completely disabled.",
@@ -86,10 +163,17 @@ public class LoggerConfig {
             " - {trace:line,class,method} : Displays source of the log (line number, class, method).",
             "     Example: {trace:line,class,method} → 42:MyClass:myMethod",
             "     You can customize the separator with: {trace:line,class,method,separator=-}",
-            "     Example output: 42-MyClass-myMethod"
+            "     Example output: 42-MyClass-myMethod",
+            " - {fields}               : Key-value fields of structured events (e.g., userId=42 attempt=3).",
+            " - {json}                 : The whole event as a JSON object. Use '{json}' as the layout for JSON Lines.",
+            "     Select and order the members with: {json:time,level,prefix,message,trace,fields,format=HH:mm:ss}"
     })
     private String logMessageLayout = "{color:hex=#545454}[{time:format=HH:mm:ss}] [{prefix}]{levelColor} [{level}]: {message}";
 
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private ClockSource clockSource = ClockSource.WALL_CLOCK;
+
     @Builder.Default
     @YAMLSetting(name = "Blacklist-Matches", comments = {
             "If set to true, the 'Log-Area-Filter-Patterns' list will be treated as a blacklist instead of a whitelist.",
@@ -104,10 +188,18 @@ public class LoggerConfig {
             "Supported filtering methods:",
             " - Exact match: 'com.example.Main' enables only that logger.",
             " - Wildcard (*) match: 'com.*' enables all loggers starting with 'com.'.",
+            " - Wildcard (*) anywhere: '*Service' or 'com.*.db.*' match any characters in place of each '*'.",
             " - Regex match: Use '^<regex>$' for advanced pattern matching."
     })
     private List<String> logAreaFilterPatterns = List.of("*");
 
+    @Builder.Default
+    @YAMLSetting(name = "Log-Filter-Cache-Size", comments = {
+            "Number of logger identifiers whose filter result is cached.",
+            "Once the cache is full, random entries are evicted to make room for new ones."
+    })
+    private int logFilterCacheSize = LogFilter.DEFAULT_CACHE_CAPACITY;
+
     @Builder.Default
     @YAMLSetting.Ignore
     private LogFilter logFilter = new LogFilter(List.of("*"), false);
@@ -119,6 +211,93 @@ public class LoggerConfig {
     })
     private boolean enableLogFiles = false;
 
+    @Builder.Default
+    @YAMLSetting(name = "Log-File-Queue-Capacity", comments = {
+            "Number of log messages that can wait to be written to the log file.",
+            "What happens to messages while the queue is full depends on the overflow policy, by default they are dropped."
+    })
+    private int logFileQueueCapacity = 10_000;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private OverflowPolicy logFileOverflowPolicy = OverflowPolicy.DROP;
+
+    @Builder.Default
+    @YAMLSetting(name = "Log-File-Block-Timeout", comments = {
+            "Maximum time a logging thread waits for space in the full log file queue, unless the overflow policy is DROP.",
+            "Messages that still don't fit are dropped afterwards.",
+            "Value in Milliseconds"
+    })
+    private long logFileBlockTimeout = 100;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private LogLevel logFileDropThreshold = LogLevels.WARN;
+
+    @Builder.Default
+    @YAMLSetting(name = "Log-File-Overflow-Spill", comments = {
+            "If true, messages that don't fit into the log file queue are written to an overflow file instead of being dropped.",
+            "The overflow file is placed next to the log file, with the suffix '.overflow.log'.",
+            "Not supported for binary log files, which always drop these messages."
+    })
+    private boolean logFileOverflowSpill = false;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private LogQueueType logFileQueueType = LogQueueType.MPSC;
+
+    @Builder.Default
+    @YAMLSetting(name = "Binary-Log-Files", comments = {
+            "If true, log files are written in the binary .ylog format instead of text.",
+            "Events are stored unformatted, with message templates and prefixes written only once per file.",
+            "This keeps formatting off the logging threads for the log file. Use BinaryLogDecoder to render the files as text."
+    })
+    private boolean binaryLogFiles = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Memory-Mapped-Log-Files", comments = {
+            "If true, log files are written through a memory mapping instead of regular write calls.",
+            "The file grows in chunks and is truncated to its real length when it is closed.",
+            "If the application crashes, the file keeps a zero-filled tail, which is removed on the next start."
+    })
+    private boolean memoryMappedLogFiles = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Memory-Mapped-Chunk-Size", comments = {
+            "Size of the chunks memory-mapped log files grow by.",
+            "Value in Kilobytes"
+    })
+    private int memoryMappedChunkSize = 4096;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private DurabilityMode durabilityMode = DurabilityMode.NONE;
+
+    @Builder.Default
+    @YAMLSetting(name = "Durability-Interval", comments = {
+            "Minimum time between two forces of the log file to disk, if the durability mode is INTERVAL.",
+            "Value in Milliseconds"
+    })
+    private long durabilityInterval = 1000;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private LogLevel durabilityLevel = LogLevels.ERROR;
+
+    @Builder.Default
+    @YAMLSetting(name = "Block-Until-Durable", comments = {
+            "If true, threads logging at or above the durability level wait until their line has been forced to disk.",
+            "Has no effect if the durability mode is NONE."
+    })
+    private boolean blockUntilDurable = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Durability-Timeout", comments = {
+            "Maximum time a thread waits for its line to become durable.",
+            "Value in Milliseconds"
+    })
+    private long durabilityTimeout = 1000;
+
     @Builder.Default
     @YAMLSetting(name = "Log-File-Limit", comments = {
             "Defines how many log files are stored.",
@@ -136,10 +315,55 @@ public class LoggerConfig {
 
     @Builder.Default
     @YAMLSetting(name = "Compress-Old-Log-Files", comments = {
-            "If true, old log files are automatically compressed (.zip or .gz) to save space."
+            "If true, old log files are automatically compressed with gzip (.gz) to save space."
     })
     private boolean compressOldLogFiles = true;
 
+    @Builder.Default
+    @YAMLSetting(name = "Compression-Level", comments = {
+            "Deflate level used to compress old log files.",
+            "From 1 (fastest) to 9 (smallest files), 0 stores the files without compressing them."
+    })
+    private int compressionLevel = 6;
+
+    @Builder.Default
+    @YAMLSetting(name = "Maintenance-Threads", comments = {
+            "Number of background threads compressing and cleaning up old log files.",
+            "With more than one thread, several files are compressed at once,",
+            "and large files are split into blocks that are compressed in parallel."
+    })
+    private int maintenanceThreads = 1;
+
+    @Builder.Default
+    @YAMLSetting(name = "Parallel-Compression-Threshold", comments = {
+            "Log files of at least this size are compressed in parallel blocks, if there is more than one maintenance thread.",
+            "The result is a regular .gz file consisting of several gzip members.",
+            "Value in Kilobytes"
+    })
+    private int parallelCompressionThreshold = 8192;
+
+    @Builder.Default
+    @YAMLSetting(name = "Metrics-Enabled", comments = {
+            "If true, YAJL counts events, written bytes and handled exceptions, and measures latencies.",
+            "Read them with LogMetrics.snapshot() or through JMX.",
+            "Disabled by default. While enabled, every log event pays for a per-thread counter increment and a sampling decision,",
+            "about 6 ns per event in MetricsBenchmarks. Only one in Metrics-Sample-Rate events is also timed."
+    })
+    private boolean metricsEnabled = false;
+
+    @Builder.Default
+    @YAMLSetting(name = "Metrics-Sample-Rate", comments = {
+            "One in this many log events has its latency measured.",
+            "Rounded up to the next power of two, 1 measures every event."
+    })
+    private int metricsSampleRate = 64;
+
+    @Builder.Default
+    @YAMLSetting(name = "Metrics-JMX", comments = {
+            "If true, the metrics are exposed as the MBean 'com.toxicstoxm.YAJL:type=LogMetrics'."
+    })
+    private boolean metricsJmx = false;
+
     @Builder.Default
     @YAMLSetting(name = "Log-Directory", comments = {
             "Specifies the directory where log files will be stored."
@@ -156,6 +380,25 @@ public class LoggerConfig {
     })
     private String logFileNamePattern = "log_{date}";
 
+    @Builder.Default
+    @YAMLSetting(name = "Log-File-Max-Size", comments = {
+            "The current log file is closed and a new one is started once it reached this size.",
+            "The closed file is compressed, if compression is enabled.",
+            "Value in Kilobytes, 0 disables size based rotation."
+    })
+    private long logFileMaxSize = 0;
+
+    @Builder.Default
+    @YAMLSetting(name = "Log-File-Max-Age", comments = {
+            "The current log file is closed and a new one is started once it has been open for this long.",
+            "Value in Minutes, 0 disables age based rotation."
+    })
+    private long logFileMaxAge = 0;
+
+    @Builder.Default
+    @YAMLSetting.Ignore
+    private RotationBoundary logFileRotationBoundary = RotationBoundary.NONE;
+
     @Builder.Default
     @YAMLSetting(name = "Exception-Handler-Padding-Size")
     private int exceptionHandlerPaddingSize = 4;
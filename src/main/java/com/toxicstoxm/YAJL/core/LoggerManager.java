@@ -1,11 +1,15 @@
 package com.toxicstoxm.YAJL.core;
 
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.io.Appender;
+import com.toxicstoxm.YAJL.io.AppenderBinding;
+import com.toxicstoxm.YAJL.io.CompressionStats;
 import com.toxicstoxm.YAJL.io.LogFileManager;
+import com.toxicstoxm.YAJL.io.LogQueueStats;
 import com.toxicstoxm.YAJL.layout.*;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
 import com.toxicstoxm.YAJSI.SettingsManager;
 import com.toxicstoxm.YAJSI.upgrading.AutoUpgradingBehaviour;
-import lombok.AccessLevel;
-import lombok.Setter;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Unmodifiable;
@@ -44,6 +48,39 @@ public class LoggerManager {
         logFileManager.writeLogMessage(message);
     }
 
+    protected static void writeLogFile(byte[] line) {
+        logFileManager.writeLogMessage(line);
+    }
+
+    /**
+     * @return a snapshot of the log file compression metrics
+     */
+    public static @NotNull CompressionStats getCompressionStats() {
+        return logFileManager.getCompressionStats();
+    }
+
+    /**
+     * @return a snapshot of the log file queue metrics, such as its depth and the number of dropped messages
+     */
+    public static @NotNull LogQueueStats getLogFileQueueStats() {
+        return logFileManager.getQueueStats();
+    }
+
+    private static volatile AppenderPipeline appenderPipeline = AppenderPipeline.EMPTY;
+
+    static @NotNull AppenderPipeline getAppenderPipeline() {
+        return appenderPipeline;
+    }
+
+    private static volatile DeferredDispatcher deferredDispatcher;
+
+    /**
+     * @return the dispatcher formatting events in the background, {@code null} if deferred formatting is disabled
+     */
+    static DeferredDispatcher getDeferredDispatcher() {
+        return deferredDispatcher;
+    }
+
     private LoggerManager(boolean useConfigFile, File configFileLocation, LoggerConfig settings) {
         if (useConfigFile) {
             SettingsManager.configure()
@@ -57,12 +94,14 @@ public class LoggerManager {
         } else {
             this.settings = settings;
         }
+        configGeneration++;
 
-        if (this.settings.isEnableLogFiles()) {
-            logFileManager.init();
-        }
+        applySettings(null, this.settings);
 
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopDeferredDispatcher();
+            appenderPipeline.close();
+
             if (getSettings().isEnableLogFiles()) {
                 logFileManager.shutdown();
             }
@@ -78,7 +117,7 @@ public class LoggerManager {
         return configure();
     }
 
-    public static void resetSettings() {getInstance().setSettings(LoggerConfig.builder().done());}
+    public static synchronized void resetSettings() {getInstance().setSettings(LoggerConfig.builder().done());}
 
     @Contract(" -> new")
     public static synchronized @NotNull LoggerBlueprint configure() {
@@ -87,28 +126,68 @@ public class LoggerManager {
 
     public static class LoggerBlueprint extends LoggerConfig.LoggerConfigBuilder {
         private final List<PrintStream> outputs = new ArrayList<>();
+        private final List<AppenderBinding> appenders = new ArrayList<>();
         private List<String> logAreaFilterPatterns = new ArrayList<>();
+        private final List<String> levelOverrides = new ArrayList<>();
         private boolean logFilterChanges = false;
         private boolean filterPatternsAsBlacklist;
+        private int logFilterCacheSize;
 
         public LoggerBlueprint(@NotNull LoggerConfig existingConfig) {
             this.outputs.addAll(existingConfig.getOutputs());
+            this.appenders.addAll(existingConfig.getAppenders());
             this.logAreaFilterPatterns.addAll(existingConfig.getLogAreaFilterPatterns());
+            this.levelOverrides.addAll(existingConfig.getLevelOverrides());
             defaultLogLevel(existingConfig.getDefaultLogLevel());
             minimumLogLevel(existingConfig.getMinimumLogLevel());
+            asyncConsoleOutput(existingConfig.isAsyncConsoleOutput());
+            asyncConsoleBufferSize(existingConfig.getAsyncConsoleBufferSize());
+            asyncConsoleWaitStrategy(existingConfig.getAsyncConsoleWaitStrategy());
+            asyncConsoleOverflowPolicy(existingConfig.getAsyncConsoleOverflowPolicy());
+            asyncConsoleDropThreshold(existingConfig.getAsyncConsoleDropThreshold());
+            atomicMultiLineMessages(existingConfig.isAtomicMultiLineMessages());
+            deferredFormatting(existingConfig.isDeferredFormatting());
+            deferredFormattingBufferSize(existingConfig.getDeferredFormattingBufferSize());
             enableColorCoding(existingConfig.isEnableColorCoding());
             muteLogger(existingConfig.isMuteLogger());
             stackTraceLengthLimit(existingConfig.getStackTraceLengthLimit());
             logMessageLayout(existingConfig.getLogMessageLayout());
             this.filterPatternsAsBlacklist = existingConfig.isFilterPatternsAsBlacklist();
+            this.logFilterCacheSize = existingConfig.getLogFilterCacheSize();
+            super.logFilterCacheSize(logFilterCacheSize);
             logFilter(existingConfig.getLogFilter());
             enableLogFiles(existingConfig.isEnableLogFiles());
             enableLogFiles(existingConfig.isEnableLogFiles());
+            logFileQueueCapacity(existingConfig.getLogFileQueueCapacity());
+            logFileOverflowPolicy(existingConfig.getLogFileOverflowPolicy());
+            logFileBlockTimeout(existingConfig.getLogFileBlockTimeout());
+            logFileDropThreshold(existingConfig.getLogFileDropThreshold());
+            logFileOverflowSpill(existingConfig.isLogFileOverflowSpill());
+            logFileQueueType(existingConfig.getLogFileQueueType());
+            memoryMappedLogFiles(existingConfig.isMemoryMappedLogFiles());
+            memoryMappedChunkSize(existingConfig.getMemoryMappedChunkSize());
+            binaryLogFiles(existingConfig.isBinaryLogFiles());
+            durabilityMode(existingConfig.getDurabilityMode());
+            durabilityInterval(existingConfig.getDurabilityInterval());
+            durabilityLevel(existingConfig.getDurabilityLevel());
+            blockUntilDurable(existingConfig.isBlockUntilDurable());
+            durabilityTimeout(existingConfig.getDurabilityTimeout());
+            metricsEnabled(existingConfig.isMetricsEnabled());
+            metricsSampleRate(existingConfig.getMetricsSampleRate());
+            metricsJmx(existingConfig.isMetricsJmx());
+            clockSource(existingConfig.getClockSource());
+            colorDepth(existingConfig.getColorDepth());
             logFileLimit(existingConfig.getLogFileLimit());
             compressedFileSizeLimit(existingConfig.getCompressedFileSizeLimit());
             compressOldLogFiles(existingConfig.isCompressOldLogFiles());
+            compressionLevel(existingConfig.getCompressionLevel());
+            maintenanceThreads(existingConfig.getMaintenanceThreads());
+            parallelCompressionThreshold(existingConfig.getParallelCompressionThreshold());
             logDirectory(existingConfig.getLogDirectory());
             logFileNamePattern(existingConfig.getLogFileNamePattern());
+            logFileMaxSize(existingConfig.getLogFileMaxSize());
+            logFileMaxAge(existingConfig.getLogFileMaxAge());
+            logFileRotationBoundary(existingConfig.getLogFileRotationBoundary());
             internalLog(existingConfig.isInternalLog());
             internalLogOutput(existingConfig.getInternalLogOutput());
             exceptionHandlerDefaultLogLevel(existingConfig.getExceptionHandlerDefaultLogLevel());
@@ -124,32 +203,118 @@ public class LoggerManager {
             return this;
         }
 
+        /**
+         * Sets the minimum level of the area and its sub-areas, replacing a previous override of the same pattern.
+         *
+         * @param pattern an area like {@code com.acme.db}, or a prefix ending in {@code *}
+         */
+        public LoggerBlueprint levelOverride(@NotNull String pattern, @NotNull LogLevel level) {
+            return levelOverride(pattern, level.getLevel());
+        }
+
+        /**
+         * Sets the minimum level of the area and its sub-areas, replacing a previous override of the same pattern.
+         *
+         * @param pattern an area like {@code com.acme.db}, or a prefix ending in {@code *}
+         */
+        public LoggerBlueprint levelOverride(@NotNull String pattern, int level) {
+            removeLevelOverride(pattern);
+            this.levelOverrides.add(pattern + "=" + level);
+            return this;
+        }
+
+        /**
+         * Sets the minimum level of the logger of the class.
+         */
+        public LoggerBlueprint levelOverride(@NotNull Class<?> clazz, @NotNull LogLevel level) {
+            return levelOverride(clazz.getName(), level);
+        }
+
+        public LoggerBlueprint removeLevelOverride(@NotNull String pattern) {
+            this.levelOverrides.removeIf(entry -> entry.substring(0, Math.max(0, entry.lastIndexOf('='))).trim().equals(pattern));
+            return this;
+        }
+
+        @Override
+        public LoggerBlueprint levelOverrides(List<String> levelOverrides) {
+            this.levelOverrides.clear();
+            this.levelOverrides.addAll(levelOverrides);
+            return this;
+        }
+
         public LoggerBlueprint addOutput(PrintStream output) {
             this.outputs.add(output);
             return this;
         }
 
+        @Override
+        public LoggerBlueprint outputs(List<PrintStream> outputs) {
+            this.outputs.clear();
+            this.outputs.addAll(outputs);
+            return this;
+        }
+
+        /**
+         * Registers an appender for all levels and areas.
+         */
+        public LoggerBlueprint addAppender(@NotNull Appender appender) {
+            this.appenders.add(AppenderBinding.of(appender));
+            return this;
+        }
+
+        /**
+         * Registers an appender for all lines of at least the given level.
+         */
+        public LoggerBlueprint addAppender(@NotNull Appender appender, @NotNull LogLevel minimumLevel) {
+            this.appenders.add(AppenderBinding.of(appender, minimumLevel, null));
+            return this;
+        }
+
+        /**
+         * Registers an appender for all lines of the given area and its sub-areas.
+         */
+        public LoggerBlueprint addAppender(@NotNull Appender appender, @NotNull String area) {
+            this.appenders.add(AppenderBinding.of(appender, null, area));
+            return this;
+        }
+
+        /**
+         * Registers an appender for all lines of at least the given level, logged in the given area or its sub-areas.
+         */
+        public LoggerBlueprint addAppender(@NotNull Appender appender, @NotNull LogLevel minimumLevel, @NotNull String area) {
+            this.appenders.add(AppenderBinding.of(appender, minimumLevel, area));
+            return this;
+        }
+
+        /**
+         * Unregisters an appender. It is closed once the config is published.
+         */
+        public LoggerBlueprint removeAppender(@NotNull Appender appender) {
+            this.appenders.removeIf(binding -> binding.appender() == appender);
+            return this;
+        }
+
+        @Override
+        public LoggerBlueprint appenders(List<AppenderBinding> appenders) {
+            this.appenders.clear();
+            this.appenders.addAll(appenders);
+            return this;
+        }
+
         @Override
         public LoggerConfig done() {
             super.outputs(List.copyOf(this.outputs));
+            super.appenders(List.copyOf(this.appenders));
+            super.levelOverrides(List.copyOf(this.levelOverrides));
             final List<String> filterPatterns = List.copyOf(this.logAreaFilterPatterns);
             super.logAreaFilterPatterns(filterPatterns);
             if (logFilterChanges) {
-                super.logFilter(new LogFilter(filterPatterns, filterPatternsAsBlacklist));
+                super.logFilter(new LogFilter(filterPatterns, filterPatternsAsBlacklist, logFilterCacheSize));
             }
             LoggerConfig conf = super.done();
 
             synchronized (LoggerManager.class) {
-                LoggerManager mgr = getInstance();
-                LoggerConfig old = mgr.settings;
-
-                mgr.setSettings(conf);
-
-                if (conf.isEnableLogFiles() && !old.isEnableLogFiles()) {
-                    logFileManager.init();
-                } else if (!conf.isEnableLogFiles() && old.isEnableLogFiles()) {
-                    logFileManager.shutdown();
-                }
+                getInstance().setSettings(conf);
             }
 
             return conf;
@@ -164,6 +329,15 @@ public class LoggerManager {
             return this;
         }
 
+        @Override
+        public LoggerConfig.LoggerConfigBuilder logFilterCacheSize(int logFilterCacheSize) {
+            if (logFilterCacheSize != this.logFilterCacheSize) {
+                this.logFilterChanges = true;
+                this.logFilterCacheSize = logFilterCacheSize;
+            }
+            return super.logFilterCacheSize(logFilterCacheSize);
+        }
+
         @Override
         public LoggerConfig.LoggerConfigBuilder filterPatternsAsBlacklist(boolean filterPatternsAsBlacklist) {
             this.logFilterChanges = true;
@@ -172,21 +346,114 @@ public class LoggerManager {
         }
     }
 
-    @Setter(value = AccessLevel.PRIVATE)
     private volatile LoggerConfig settings;
 
+    /**
+     * Incremented every time a new {@link LoggerConfig} is published.
+     * Loggers compare it against the generation their cached state was resolved for, to notice config changes with a single read.
+     * Only written while holding the {@code LoggerManager} class lock.
+     */
+    private static volatile int configGeneration;
+
+    public static int getConfigGeneration() {
+        return configGeneration;
+    }
+
+    private void setSettings(LoggerConfig settings) {
+        LoggerConfig old = this.settings;
+        this.settings = settings;
+        configGeneration++;
+
+        applySettings(old, settings);
+        LoggerRegistry.refreshAll();
+    }
+
+    /**
+     * Applies the metrics settings, starts or stops the log file manager and publishes the appenders of a newly published config.
+     * Appenders that are no longer registered are closed.
+     */
+    private static void applySettings(LoggerConfig old, @NotNull LoggerConfig conf) {
+        LogMetrics.configure(conf.isMetricsEnabled(), conf.getMetricsSampleRate());
+        if (conf.isMetricsJmx()) {
+            LogMetrics.registerMBean();
+        } else {
+            LogMetrics.unregisterMBean();
+        }
+
+        boolean logFilesWereEnabled = old != null && old.isEnableLogFiles();
+
+        if (conf.isEnableLogFiles() && !logFilesWereEnabled) {
+            logFileManager.init();
+        } else if (!conf.isEnableLogFiles() && logFilesWereEnabled) {
+            logFileManager.shutdown();
+        } else if (conf.isEnableLogFiles() && old.isBinaryLogFiles() != conf.isBinaryLogFiles()) {
+            // text and binary lines can't share a file, so continue in a new file of the other format
+            logFileManager.shutdown();
+            logFileManager.init();
+        }
+
+        boolean dispatcherChanged = old == null
+                || old.isDeferredFormatting() != conf.isDeferredFormatting()
+                || old.getDeferredFormattingBufferSize() != conf.getDeferredFormattingBufferSize();
+        if (dispatcherChanged) {
+            // pending events are rendered with the appenders they were logged for
+            stopDeferredDispatcher();
+        }
+
+        AppenderPipeline previous = appenderPipeline;
+        AppenderPipeline replacement = AppenderPipeline.build(conf, previous, logFileManager);
+        appenderPipeline = replacement;
+
+        previous.closeReplaced(replacement);
+
+        if (dispatcherChanged && conf.isDeferredFormatting()) {
+            deferredDispatcher = new DeferredDispatcher(conf.getDeferredFormattingBufferSize());
+        }
+    }
+
+    /**
+     * Stops the deferred formatting thread, after it rendered all pending events.
+     */
+    private static void stopDeferredDispatcher() {
+        DeferredDispatcher dispatcher = deferredDispatcher;
+        if (dispatcher == null) return;
+
+        deferredDispatcher = null;
+        dispatcher.stop();
+    }
+
+    private record CachedLevelOverrides(List<String> entries, LevelOverrides overrides) {}
+
+    private static volatile CachedLevelOverrides cachedLevelOverrides;
+
+    /**
+     * @return the level overrides of the current config, parsed once per distinct list of entries
+     */
+    static @NotNull LevelOverrides getLevelOverrides() {
+        List<String> entries = getSettings().getLevelOverrides();
+
+        CachedLevelOverrides current = cachedLevelOverrides;
+        if (current == null || !current.entries().equals(entries)) {
+            current = new CachedLevelOverrides(List.copyOf(entries), LevelOverrides.parse(entries));
+            cachedLevelOverrides = current;
+        }
+        return current.overrides();
+    }
+
     private static volatile CachedLayout cached;
 
     public static @NotNull CompiledLayout getCompiledLayout() {
         LayoutCacheKey newKey =
                 new LayoutCacheKey(
                         getSettings().getLogMessageLayout(),
-                        getSettings().isEnableColorCoding()
+                        getSettings().isEnableColorCoding(),
+                        getSettings().getClockSource(),
+                        getSettings().getColorDepth()
                 );
 
         CachedLayout current = cached;
         if (current == null || !current.key().equals(newKey)) {
-            ParsedLayout parsedLayout = parseLayout(newKey.layout());
+            ParsedLayout parsedLayout = parseLayout(newKey);
             CompiledLayout fresh =
                     new CompiledLayout(newKey.layout(), parsedLayout);
             cached = new CachedLayout(newKey, fresh); // single volatile write
@@ -196,10 +463,19 @@ public class LoggerManager {
         return current.layout();
     }
 
+    /**
+     * Compiles a layout without caching it, e.g. to render events decoded from a binary log file.
+     */
+    public static @NotNull CompiledLayout compileLayout(@NotNull String layout, boolean colorEnabled) {
+        LayoutCacheKey key = new LayoutCacheKey(layout, colorEnabled, getSettings().getClockSource(), getSettings().getColorDepth());
+        return new CompiledLayout(layout, parseLayout(key));
+    }
+
     private static final Pattern PLACEHOLDER_PATTERN =
             Pattern.compile("\\{(\\w+)(?::([^}]*))?}");
 
-    private static @NotNull @Unmodifiable ParsedLayout parseLayout(String layout) {
+    private static @NotNull @Unmodifiable ParsedLayout parseLayout(@NotNull LayoutCacheKey cacheKey) {
+        String layout = cacheKey.layout();
         Matcher m = PLACEHOLDER_PATTERN.matcher(layout);
         List<LayoutToken> tokens = new ArrayList<>();
 
@@ -224,7 +500,7 @@ public class LoggerManager {
                 }
             }
 
-            tokens.add(new PlaceholderToken(key, staticArgs));
+            tokens.add(new PlaceholderToken(key, staticArgs, cacheKey));
             lastEnd = m.end();
         }
 
@@ -235,19 +511,20 @@ public class LoggerManager {
         return new ParsedLayout(List.copyOf(tokens), hasColor);
     }
 
-    @Contract(value = "_ -> new", pure = true)
+    /**
+     * Returns the logger of the class. Loggers are registered per area and prefix,
+     * so repeated calls return the same instance as long as it is referenced somewhere.
+     */
     public static @NotNull Logger getLogger(@NotNull Class<?> clazz) {
-        return new Logger(clazz.getName(), clazz.getSimpleName());
+        return LoggerRegistry.get(clazz.getName(), clazz.getSimpleName());
     }
 
-    @Contract(value = "_ -> new", pure = true)
     public static @NotNull Logger getVirtualLogger(@NotNull String area) {
-        return new Logger(area, area);
+        return LoggerRegistry.get(area, area);
     }
 
-    @Contract(value = "_, _ -> new", pure = true)
     public static @NotNull Logger getVirtualLogger(@NotNull String area, @NotNull String name) {
-        return new Logger(area, name);
+        return LoggerRegistry.get(area, name);
     }
 
     public static void internalLog(String msg) {
@@ -0,0 +1,87 @@
+package com.toxicstoxm.YAJL.core;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loggers handed out by {@link LoggerManager}, one per area and prefix.
+ * <p>
+ * Loggers are only weakly referenced, so a logger, and with it its per-logger state, is freed once no class holds it anymore.
+ * Keys are plain strings, so the registry never keeps a class or its class loader reachable.
+ * </p>
+ */
+final class LoggerRegistry {
+    private record Key(String area, String prefix) {}
+
+    private static final class Entry extends WeakReference<Logger> {
+        private final Key key;
+
+        private Entry(@NotNull Key key, @NotNull Logger logger, @NotNull ReferenceQueue<Logger> queue) {
+            super(logger, queue);
+            this.key = key;
+        }
+    }
+
+    private static final ConcurrentHashMap<Key, Entry> LOGGERS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Logger> COLLECTED = new ReferenceQueue<>();
+
+    private LoggerRegistry() {}
+
+    /**
+     * @return the registered logger for the area and prefix, created if there is none
+     */
+    static @NotNull Logger get(@NotNull String area, @NotNull String prefix) {
+        Key key = new Key(area, prefix);
+
+        Entry entry = LOGGERS.get(key);
+        Logger logger = entry == null ? null : entry.get();
+        if (logger != null) return logger;
+
+        expungeCollected();
+
+        Logger created = new Logger(area, prefix);
+        while (true) {
+            Entry existing = LOGGERS.putIfAbsent(key, new Entry(key, created, COLLECTED));
+            if (existing == null) return created;
+
+            logger = existing.get();
+            if (logger != null) return logger;
+
+            // the registered logger was collected in the meantime, replace its entry
+            LOGGERS.remove(key, existing);
+        }
+    }
+
+    /**
+     * Resolves the state of every registered logger for the current config,
+     * so the first log call after a config change doesn't pay for it.
+     */
+    static void refreshAll() {
+        expungeCollected();
+
+        for (Entry entry : LOGGERS.values()) {
+            Logger logger = entry.get();
+            if (logger != null) {
+                logger.refreshState();
+            }
+        }
+    }
+
+    /**
+     * @return the number of registered loggers, including ones not yet removed after they were collected
+     */
+    static int size() {
+        return LOGGERS.size();
+    }
+
+    private static void expungeCollected() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            Entry entry = (Entry) collected;
+            LOGGERS.remove(entry.key, entry);
+        }
+    }
+}
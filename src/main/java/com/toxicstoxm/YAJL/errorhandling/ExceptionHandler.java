@@ -4,6 +4,7 @@ import com.toxicstoxm.YAJL.core.Logger;
 import com.toxicstoxm.YAJL.core.LoggerConfig;
 import com.toxicstoxm.YAJL.core.LoggerManager;
 import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
 import com.toxicstoxm.YAJL.util.tools.ClassTools;
 import com.toxicstoxm.YAJL.util.tools.StringTools;
 import org.jetbrains.annotations.Contract;
@@ -140,6 +141,7 @@ public class ExceptionHandler {
 
 
     public static void handle(@NotNull Throwable throwable, @Nullable String userMessage, @Nullable LogLevel logLevel, @Nullable CustomErrorHandler customErrorHandler) {
+        long start = System.nanoTime();
         // Defaults here to allow function overloads to be simpler
         if (userMessage == null) {
             userMessage = "";
@@ -173,6 +175,8 @@ public class ExceptionHandler {
             customErrorHandler.handle(targetLogger, originClass, extraInfo);
         }
         targetLogger.log(logLevel, extraInfo);
+
+        LogMetrics.recordExceptionHandled(System.nanoTime() - start);
     }
 
     public static void handle(@NotNull Throwable throwable) {
@@ -0,0 +1,52 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Destination for rendered log lines, e.g. the console or a log file.
+ * <p>
+ * Appenders are registered using {@link com.toxicstoxm.YAJL.core.LoggerManager.LoggerBlueprint#addAppender(Appender)}.
+ * {@link #append(LogLine)} is called by the logging threads, possibly concurrently.
+ * Wrap an appender in an {@link AsyncAppender} to move its work to a background thread,
+ * which then passes the lines in batches to {@link #append(List)}.
+ * </p>
+ */
+public interface Appender {
+    /**
+     * Appends a single line. The line is only valid until this method returns.
+     *
+     * @param line the rendered line
+     */
+    void append(@NotNull LogLine line);
+
+    /**
+     * Appends a batch of lines. The lines are only valid until this method returns.
+     * Sinks that benefit from batching (e.g. one {@code write} call instead of one per line) should override this.
+     *
+     * @param lines the rendered lines, in order
+     */
+    default void append(@NotNull List<LogLine> lines) {
+        for (LogLine line : lines) {
+            append(line);
+        }
+    }
+
+    /**
+     * Writes out everything this appender buffered.
+     */
+    void flush();
+
+    /**
+     * Flushes and releases the resources of this appender. Lines appended afterwards may be ignored.
+     */
+    void close();
+
+    /**
+     * @return {@code true} if this appender receives lines containing ANSI color escapes, {@code false} for plain lines
+     */
+    default boolean isColored() {
+        return false;
+    }
+}
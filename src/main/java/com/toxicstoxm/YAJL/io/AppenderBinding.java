@@ -0,0 +1,34 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registers an {@link Appender} for a range of log levels and, optionally, a log area.
+ *
+ * @param appender the appender receiving the lines
+ * @param minimumLevel lines below this level are not passed to the appender
+ * @param area only lines of this area and its sub-areas (e.g. {@code com.example} matches {@code com.example.Main})
+ *             are passed to the appender. {@code null} matches all areas.
+ */
+public record AppenderBinding(@NotNull Appender appender, long minimumLevel, @Nullable String area) {
+    @Contract("_ -> new")
+    public static @NotNull AppenderBinding of(@NotNull Appender appender) {
+        return new AppenderBinding(appender, Long.MIN_VALUE, null);
+    }
+
+    @Contract("_, _, _ -> new")
+    public static @NotNull AppenderBinding of(@NotNull Appender appender, @Nullable LogLevel minimumLevel, @Nullable String area) {
+        return new AppenderBinding(appender, minimumLevel == null ? Long.MIN_VALUE : minimumLevel.getLevel(), area);
+    }
+
+    public boolean accepts(@NotNull LogLevel level, @NotNull String logArea) {
+        return level.getLevel() >= minimumLevel && (area == null || matchesArea(logArea));
+    }
+
+    private boolean matchesArea(@NotNull String logArea) {
+        return logArea.startsWith(area) && (logArea.length() == area.length() || logArea.charAt(area.length()) == '.');
+    }
+}
@@ -0,0 +1,276 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.util.RingBuffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Moves the work of another {@link Appender} off the logging threads.
+ * <p>
+ * Logging threads copy their lines into the slots of a preallocated {@link RingBuffer}.
+ * A single drainer thread collects them in batches and passes each batch to the wrapped appender at once,
+ * so logging threads no longer contend on the wrapped sink or stall on a slow terminal, pipe or disk.
+ * Slot buffers keep their capacity, so handing a line over does not allocate.
+ * </p>
+ * <p>
+ * The drainer thread is started by the constructor. Lines appended after {@link #close()} are passed to
+ * the wrapped appender directly, so loggers still holding on to a replaced appender keep working.
+ * </p>
+ */
+public final class AsyncAppender implements Appender {
+    private static final int BATCH_SIZE = 256;
+
+    private final Appender delegate;
+    private final RingBuffer<LogLine> buffer;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final long dropThreshold;
+
+    private final Object lifecycleLock = new Object();
+    private volatile boolean running = true;
+    private volatile Thread drainer;
+
+    // Set by the drainer thread once it stopped, afterwards producers pass lines they published late themselves
+    private boolean terminated = false;
+    private final WakeupSignal signal = new WakeupSignal();
+    private final BooleanSupplier hasWork;
+
+    private final AtomicLong dropCount = new AtomicLong();
+
+    // Only used by the drainer thread, or by producers after it stopped
+    private final List<LogLine> batch = new ArrayList<>(BATCH_SIZE);
+
+    /**
+     * Wraps the appender using a buffer of 8192 lines, which blocks logging threads while it is full.
+     */
+    public AsyncAppender(@NotNull Appender delegate) {
+        this(delegate, 8192, WaitStrategy.PARK, OverflowPolicy.BLOCK, LogLevels.WARN, "YAJL-AsyncAppender");
+    }
+
+    /**
+     * @param delegate the appender lines are passed to
+     * @param bufferSize minimum number of buffered lines, rounded up to the next power of two
+     * @param waitStrategy how the drainer waits for lines and blocked logging threads wait for space
+     * @param overflowPolicy what happens to lines while the buffer is full, {@link OverflowPolicy#DROP_OLDEST} is not supported
+     * @param dropThreshold lines below this level are dropped while the buffer is full, if the policy is {@link OverflowPolicy#DROP_BELOW_LEVEL}
+     * @param threadName name of the drainer thread
+     */
+    public AsyncAppender(@NotNull Appender delegate,
+                         int bufferSize,
+                         @NotNull WaitStrategy waitStrategy,
+                         @NotNull OverflowPolicy overflowPolicy,
+                         @NotNull LogLevel dropThreshold,
+                         @NotNull String threadName) {
+        // Published slots belong to the drainer, logging threads can't take them back
+        if (overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+            throw new IllegalArgumentException("Asynchronous appenders don't support overflow policy " + overflowPolicy + "!");
+        }
+
+        this.delegate = delegate;
+        this.buffer = new RingBuffer<>(bufferSize, LogLine::new);
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.dropThreshold = dropThreshold.getLevel();
+        this.hasWork = () -> !running || buffer.hasPending();
+
+        Thread thread = new Thread(this::drain, threadName);
+        thread.setDaemon(true);
+        this.drainer = thread;
+        thread.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getBufferSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the number of lines dropped because the buffer was full
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
+    /**
+     * Hands a line over to the drainer thread.
+     *
+     * @param line the rendered line. Copied before this method returns.
+     */
+    @Override
+    public void append(@NotNull LogLine line) {
+        if (!running) {
+            delegate.append(line);
+            return;
+        }
+
+        long sequence = buffer.tryClaim();
+
+        if (sequence < 0) {
+            if (overflowPolicy == OverflowPolicy.DROP ||
+                    (overflowPolicy == OverflowPolicy.DROP_BELOW_LEVEL && line.getLevel().getLevel() < dropThreshold)) {
+                countDrop();
+                return;
+            }
+
+            // The drainer might be parked while the buffer is full
+            LockSupport.unpark(drainer);
+
+            int attempt = 0;
+
+            while ((sequence = buffer.tryClaim()) < 0) {
+                if (!running) {
+                    delegate.append(line);
+                    return;
+                }
+                waitStrategy.idle(attempt++);
+            }
+        }
+
+        buffer.get(sequence).copyFrom(line);
+        buffer.publish(sequence);
+
+        // The appender may have been stopped after the running check, then the drainer might not see this line anymore
+        if (running) {
+            signal.signal();
+        } else {
+            drainAfterStop();
+        }
+    }
+
+    /**
+     * Passes lines published after the drainer thread stopped to the wrapped appender.
+     * If the drainer is still running, it passes them itself before it stops.
+     */
+    private void drainAfterStop() {
+        synchronized (lifecycleLock) {
+            if (terminated) {
+                drainPending();
+            }
+        }
+    }
+
+    private void countDrop() {
+        if (dropCount.incrementAndGet() % 1000 == 0) {
+            LoggerManager.internalLog(
+                    "Dropped messages in " + delegate + ": " + dropCount.get()
+            );
+        }
+    }
+
+    private void drain() {
+        int attempt = 0;
+
+        while (running || buffer.hasPending()) {
+            if (drainBatch() > 0) {
+                attempt = 0;
+            } else if (waitStrategy == WaitStrategy.PARK) {
+                // Sleeps until a line is published instead of polling the buffer while the application is idle
+                signal.idle(attempt++, hasWork, WakeupSignal.MAX_IDLE_NANOS);
+            } else {
+                waitStrategy.idle(attempt++);
+            }
+        }
+
+        // Producers that claimed a slot before they noticed the stop publish it after the loop ended
+        synchronized (lifecycleLock) {
+            drainPending();
+            terminated = true;
+        }
+    }
+
+    /**
+     * Passes the next batch of published lines to the wrapped appender. Must only be called by one thread at a time.
+     *
+     * @return the number of lines passed
+     */
+    private int drainBatch() {
+        int collected = buffer.collect(batch, BATCH_SIZE);
+        if (collected == 0) return 0;
+
+        try {
+            delegate.append(batch);
+            delegate.flush();
+        } catch (RuntimeException e) {
+            LoggerManager.internalLog("Failed to append messages to " + delegate, e);
+        } finally {
+            batch.clear();
+            buffer.release(collected);
+        }
+        return collected;
+    }
+
+    /**
+     * Passes all claimed lines to the wrapped appender, waiting for producers that did not publish theirs yet.
+     */
+    private void drainPending() {
+        while (buffer.hasPending()) {
+            if (drainBatch() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Waits until the drainer passed all lines appended so far to the wrapped appender, then flushes it.
+     */
+    @Override
+    public void flush() {
+        int attempt = 0;
+        while (running && buffer.hasPending()) {
+            WaitStrategy.PARK.idle(attempt++);
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Stops the drainer thread after it passed all pending lines to the wrapped appender, then closes it.
+     */
+    @Override
+    public void close() {
+        stop();
+        delegate.close();
+    }
+
+    /**
+     * Stops the drainer thread after it passed all pending lines to the wrapped appender, without closing it.
+     */
+    public void stop() {
+        Thread thread;
+
+        synchronized (lifecycleLock) {
+            if (!running) return;
+            running = false;
+            thread = drainer;
+            drainer = null;
+        }
+
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(3000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isColored() {
+        return delegate.isColored();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncAppender [Delegate=" + delegate + "]";
+    }
+}
@@ -0,0 +1,259 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LogEnvironment;
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.Logger;
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.RenderContext;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.layout.CompiledLayout;
+import com.toxicstoxm.YAJL.util.CachingSupplier;
+import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.awt.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.toxicstoxm.YAJL.io.BinaryLogFormat.*;
+
+/**
+ * Reads binary {@code .ylog} log files, see {@link BinaryLogFormat}.
+ * <p>
+ * {@link #render(Path, String, Appendable)} turns a file back into text using a regular log message layout.
+ * The same is available from the command line:
+ * {@code java -cp YAJL.jar com.toxicstoxm.YAJL.io.BinaryLogDecoder <file.ylog[.gz]> [layout]},
+ * which uses the configured {@link com.toxicstoxm.YAJL.core.LoggerConfig#getLogMessageLayout()} if no layout is given.
+ * </p>
+ */
+public final class BinaryLogDecoder implements Closeable {
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Reads the file header from the stream.
+     *
+     * @throws IOException if the stream is not a binary log file of a supported version
+     */
+    public BinaryLogDecoder(@NotNull InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+
+        byte[] magic = new byte[MAGIC.length];
+        this.in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a binary log file");
+        }
+
+        int version = this.in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary log file version " + version);
+        }
+    }
+
+    /**
+     * Opens a binary log file, decompressing it if its name ends with {@code .gz}.
+     */
+    public static @NotNull BinaryLogDecoder open(@NotNull Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        try {
+            return new BinaryLogDecoder(file.toString().endsWith(".gz") ? new GZIPInputStream(in) : in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the next event, or {@code null} at the end of the file
+     * @throws IOException if the file is truncated or corrupt
+     */
+    public @Nullable BinaryLogEvent next() throws IOException {
+        while (true) {
+            int tag = in.read();
+
+            switch (tag) {
+                case -1, TAG_END -> {
+                    return null;
+                }
+                case TAG_DEFINE -> {
+                    int id = (int) readVarLong();
+                    String string = readString();
+                    while (strings.size() <= id) strings.add(null);
+                    strings.set(id, string);
+                }
+                case TAG_TEXT -> {
+                    return new BinaryLogEvent(0, null, null, readString(), new Object[0], LogFields.EMPTY);
+                }
+                case TAG_EVENT -> {
+                    return readEvent();
+                }
+                default -> throw new IOException("Corrupt binary log file, unknown record " + tag);
+            }
+        }
+    }
+
+    private @NotNull BinaryLogEvent readEvent() throws IOException {
+        long timestamp = in.readLong();
+        int levelValue = (int) unzigzag(readVarLong());
+        String levelName = readStringRef();
+        String prefix = readStringRef();
+        String template = readStringRef();
+
+        Object[] args = new Object[(int) readVarLong()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = readValue(in.readUnsignedByte());
+        }
+
+        int fieldCount = (int) readVarLong();
+        LogFields fields = fieldCount == 0 ? LogFields.EMPTY : new LogFields(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            String key = readStringRef();
+            int type = in.readUnsignedByte();
+            switch (type) {
+                case TYPE_LONG -> fields.add(key, unzigzag(readVarLong()));
+                case TYPE_DOUBLE -> fields.add(key, Double.longBitsToDouble(in.readLong()));
+                case TYPE_BOOLEAN -> fields.add(key, in.readUnsignedByte() != 0);
+                default -> fields.add(key, readValue(type));
+            }
+        }
+
+        return new BinaryLogEvent(timestamp, level(levelName, levelValue), prefix, template, args, fields);
+    }
+
+    private @Nullable Object readValue(int type) throws IOException {
+        return switch (type) {
+            case TYPE_NULL -> null;
+            case TYPE_STRING -> readString();
+            case TYPE_LONG -> unzigzag(readVarLong());
+            case TYPE_DOUBLE -> Double.longBitsToDouble(in.readLong());
+            case TYPE_BOOLEAN -> in.readUnsignedByte() != 0;
+            default -> throw new IOException("Corrupt binary log file, unknown value type " + type);
+        };
+    }
+
+    private static @NotNull LogLevel level(@NotNull String name, int value) {
+        for (LogLevels level : LogLevels.values()) {
+            if (level.getName().equals(name) && level.getLevel() == value) return level;
+        }
+        return new DecodedLevel(name, Color.WHITE, value);
+    }
+
+    /**
+     * Level of a decoded event that is not one of the {@link LogLevels}.
+     */
+    private record DecodedLevel(String name, Color color, int level) implements LogLevel {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Color getColor() {
+            return color;
+        }
+
+        @Override
+        public int getLevel() {
+            return level;
+        }
+    }
+
+    private @NotNull String readStringRef() throws IOException {
+        long ref = readVarLong();
+        if (ref == 0) return readString();
+
+        int id = (int) (ref - 1);
+        String string = id < strings.size() ? strings.get(id) : null;
+        if (string == null) {
+            throw new IOException("Corrupt binary log file, string " + id + " is used before it is defined");
+        }
+        return string;
+    }
+
+    private @NotNull String readString() throws IOException {
+        byte[] bytes = new byte[(int) readVarLong()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Corrupt binary log file, varint too long");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Renders every event of the file as text, without color, like the logger would have written it.
+     * Lines that were written as text are copied unchanged.
+     *
+     * @param file the binary log file, optionally gzip compressed
+     * @param layout the log message layout to render the events with
+     * @param out receives the rendered lines, each followed by a line separator
+     * @return the number of events read
+     */
+    public static long render(@NotNull Path file, @NotNull String layout, @NotNull Appendable out) throws IOException {
+        CompiledLayout compiled = LoggerManager.compileLayout(layout, false);
+        RenderContext plain = new RenderContext(false);
+        CachingSupplier<TraceTools.CallerInfo> noCaller = new CachingSupplier<>(() -> null);
+        long events = 0;
+
+        try (BinaryLogDecoder decoder = open(file)) {
+            BinaryLogEvent event;
+            while ((event = decoder.next()) != null) {
+                events++;
+
+                if (event.isText()) {
+                    out.append(event.template());
+                    continue;
+                }
+
+                String message = event.message();
+                int lineStart = 0;
+                for (int i = 0; i <= message.length(); i++) {
+                    if (i < message.length() && message.charAt(i) != '\n') continue;
+
+                    if (i > lineStart) {
+                        LogEnvironment env = new LogEnvironment(event.level(), message.substring(lineStart, i), event.prefix(), noCaller, event.timestamp(), event.fields());
+                        out.append(Logger.renderLayout(compiled.getTokens(), env, plain)).append(System.lineSeparator());
+                    }
+                    lineStart = i + 1;
+                }
+            }
+        }
+        return events;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: BinaryLogDecoder <file.ylog[.gz]> [layout]");
+            System.exit(2);
+        }
+
+        String layout = args.length > 1 ? args[1] : LoggerManager.getSettings().getLogMessageLayout();
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 64 * 1024), false, StandardCharsets.UTF_8);
+
+        render(Path.of(args[0]), layout, out);
+        out.flush();
+    }
+}
@@ -0,0 +1,197 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static com.toxicstoxm.YAJL.io.BinaryLogFormat.*;
+
+/**
+ * Encodes records of the binary log format, see {@link BinaryLogFormat}.
+ * Each logging thread reuses its own encoder, so only the finished record is copied into the buffer of the queued line.
+ */
+final class BinaryLogEncoder {
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<BinaryLogEncoder> ENCODERS = ThreadLocal.withInitial(BinaryLogEncoder::new);
+
+    private byte[] bytes = new byte[256];
+    private int length;
+    private final Utf8Buffer utf8 = new Utf8Buffer(64);
+
+    static @NotNull BinaryLogEncoder acquire() {
+        BinaryLogEncoder encoder = ENCODERS.get();
+        encoder.length = 0;
+        return encoder;
+    }
+
+    /**
+     * @return a copy of the encoded record. Buffers that grew huge are released afterwards.
+     */
+    byte @NotNull [] finish() {
+        byte[] record = Arrays.copyOf(bytes, length);
+        release();
+        return record;
+    }
+
+    /**
+     * Appends the encoded record to {@code out}. Buffers that grew huge are released afterwards.
+     */
+    void finish(@NotNull Utf8Buffer out) {
+        out.append(bytes, 0, length);
+        release();
+    }
+
+    private void release() {
+        if (bytes.length > MAX_RETAINED_CAPACITY) {
+            bytes = new byte[256];
+        }
+        utf8.reset(MAX_RETAINED_CAPACITY);
+    }
+
+    static byte @NotNull [] header() {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        for (byte b : MAGIC) encoder.writeByte(b);
+        encoder.writeByte(VERSION);
+        return encoder.finish();
+    }
+
+    static byte @NotNull [] define(int id, @NotNull String string) {
+        BinaryLogEncoder encoder = new BinaryLogEncoder();
+        encoder.writeByte(TAG_DEFINE);
+        encoder.writeVarLong(id);
+        encoder.writeString(string);
+        return encoder.finish();
+    }
+
+    /**
+     * Wraps a line that was already rendered and appends the record to {@code out}.
+     */
+    static void text(byte @NotNull [] line, int offset, int count, @NotNull Utf8Buffer out) {
+        BinaryLogEncoder encoder = acquire();
+        encoder.writeByte(TAG_TEXT);
+        encoder.writeVarLong(count);
+        encoder.finish(out);
+        out.append(line, offset, count);
+    }
+
+    /**
+     * Encodes an event without formatting its message.
+     * Arguments other than strings, numbers and booleans are stored as their {@code toString()}, captured now.
+     * The record is appended to {@code out}.
+     */
+    void event(long timestamp, @NotNull LogLevel level, @NotNull String prefix, @NotNull String template, Object @NotNull [] args, @NotNull LogFields fields,
+               @NotNull Utf8Buffer out) {
+        writeByte(TAG_EVENT);
+        writeLong(timestamp);
+        writeVarLong(zigzag(level.getLevel()));
+        writeStringRef(level.getName());
+        writeStringRef(prefix);
+        writeStringRef(template);
+
+        writeVarLong(args.length);
+        for (Object arg : args) {
+            writeValue(arg);
+        }
+
+        writeVarLong(fields.size());
+        for (int i = 0; i < fields.size(); i++) {
+            writeStringRef(fields.key(i));
+            switch (fields.type(i)) {
+                case LONG -> {
+                    writeByte(TYPE_LONG);
+                    writeVarLong(zigzag(fields.longValue(i)));
+                }
+                case DOUBLE -> {
+                    writeByte(TYPE_DOUBLE);
+                    writeLong(Double.doubleToRawLongBits(fields.doubleValue(i)));
+                }
+                case BOOLEAN -> {
+                    writeByte(TYPE_BOOLEAN);
+                    writeByte(fields.booleanValue(i) ? 1 : 0);
+                }
+                case OBJECT -> writeValue(fields.value(i));
+            }
+        }
+        finish(out);
+    }
+
+    private void writeValue(Object value) {
+        if (value instanceof Supplier<?> supplier) {
+            value = supplier.get();
+        }
+
+        if (value == null) {
+            writeByte(TYPE_NULL);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeByte(TYPE_LONG);
+            writeVarLong(zigzag(((Number) value).longValue()));
+        } else if (value instanceof Double || value instanceof Float) {
+            writeByte(TYPE_DOUBLE);
+            writeLong(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Boolean b) {
+            writeByte(TYPE_BOOLEAN);
+            writeByte(b ? 1 : 0);
+        } else {
+            writeByte(TYPE_STRING);
+            writeString(value instanceof CharSequence chars ? chars : String.valueOf(value));
+        }
+    }
+
+    private void writeStringRef(@NotNull String string) {
+        int id = BinaryLogFormat.intern(string);
+        if (id < 0) {
+            writeVarLong(0);
+            writeString(string);
+        } else {
+            writeVarLong(id + 1L);
+        }
+    }
+
+    private void writeString(@NotNull CharSequence string) {
+        utf8.reset();
+        utf8.append(string);
+        writeVarLong(utf8.length());
+        writeBytes(utf8.array(), 0, utf8.length());
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[length++] = (byte) value;
+    }
+
+    private void writeBytes(byte @NotNull [] src, int offset, int count) {
+        ensureCapacity(count);
+        System.arraycopy(src, offset, bytes, length, count);
+        length += count;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+        }
+    }
+}
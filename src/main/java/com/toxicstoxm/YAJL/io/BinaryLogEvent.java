@@ -0,0 +1,40 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.Logger;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An event read from a binary log file by the {@link BinaryLogDecoder}.
+ *
+ * @param timestamp epoch nanoseconds
+ * @param level the level, {@code null} for lines that were written as text
+ * @param prefix the logger prefix, {@code null} for lines that were written as text
+ * @param template the unformatted message, or the whole line for lines that were written as text
+ * @param args the message arguments
+ * @param fields the structured fields
+ */
+public record BinaryLogEvent(
+        long timestamp,
+        @Nullable LogLevel level,
+        @Nullable String prefix,
+        @NotNull String template,
+        Object @NotNull [] args,
+        @NotNull LogFields fields
+) {
+    /**
+     * @return whether this is a line that was already rendered when it was written
+     */
+    public boolean isText() {
+        return level == null;
+    }
+
+    /**
+     * @return the message with its arguments filled in
+     */
+    public @NotNull String message() {
+        return args.length == 0 ? template : Logger.formatMessage(template, args);
+    }
+}
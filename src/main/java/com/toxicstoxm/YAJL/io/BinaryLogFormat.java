@@ -0,0 +1,97 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Constants and the process-wide string table of the binary {@code .ylog} log file format.
+ * <p>
+ * A file starts with the magic bytes {@code YLOG} and a version byte, followed by records:
+ * </p>
+ * <ul>
+ *   <li>{@code DEFINE}: string id (varint), length (varint), UTF-8 bytes. Defines a string before its first use in the file.</li>
+ *   <li>{@code EVENT}: timestamp in epoch nanoseconds (8 bytes), level value (zigzag varint),
+ *       then references to the level name, prefix and message template, the arguments and the structured fields.</li>
+ *   <li>{@code TEXT}: length (varint), UTF-8 bytes. A line that was already rendered as text.</li>
+ * </ul>
+ * <p>
+ * String references are varints: {@code 0} is followed by an inline string, any other value {@code n} refers to string id {@code n - 1}.
+ * Arguments and field values are tagged with their type and stored without formatting.
+ * A zero byte where a record tag is expected marks the end of the data, e.g. the unused tail of a memory-mapped file.
+ * </p>
+ */
+final class BinaryLogFormat {
+    private BinaryLogFormat() {}
+
+    static final String FILE_EXTENSION = ".ylog";
+    static final byte[] MAGIC = "YLOG".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+
+    static final int TAG_END = 0;
+    static final int TAG_DEFINE = 1;
+    static final int TAG_EVENT = 2;
+    static final int TAG_TEXT = 3;
+
+    static final int TYPE_NULL = 0;
+    static final int TYPE_STRING = 1;
+    static final int TYPE_LONG = 2;
+    static final int TYPE_DOUBLE = 3;
+    static final int TYPE_BOOLEAN = 4;
+
+    /**
+     * Strings beyond this number are written inline, so messages built at runtime cannot grow the table without bounds.
+     */
+    static final int MAX_INTERNED_STRINGS = 65_536;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final Object TABLE_LOCK = new Object();
+    private static String[] strings = new String[256];
+    private static volatile int size = 0;
+
+    /**
+     * Returns the id of the string, assigning the next free id on first use.
+     * The string is stored before the id is published, so the writer thread can always define it before the first event using it.
+     *
+     * @return the id, or {@code -1} if the table is full
+     */
+    static int intern(@NotNull String string) {
+        Integer id = IDS.get(string);
+        if (id != null) return id;
+
+        synchronized (TABLE_LOCK) {
+            id = IDS.get(string);
+            if (id != null) return id;
+
+            int next = size;
+            if (next >= MAX_INTERNED_STRINGS) return -1;
+
+            if (next == strings.length) {
+                strings = Arrays.copyOf(strings, next * 2);
+            }
+            strings[next] = string;
+            size = next + 1;
+            IDS.put(string, next);
+            return next;
+        }
+    }
+
+    /**
+     * @return the number of interned strings, their ids range from {@code 0} to this value
+     */
+    static int size() {
+        return size;
+    }
+
+    /**
+     * Only used by the writer thread when it defines strings, so the lock is uncontended.
+     */
+    static @NotNull String get(int id) {
+        synchronized (TABLE_LOCK) {
+            return strings[id];
+        }
+    }
+}
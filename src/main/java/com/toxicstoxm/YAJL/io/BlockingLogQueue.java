@@ -0,0 +1,56 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * {@link LogQueue} backed by a {@link LinkedBlockingQueue}.
+ * Draining takes the queue lock once per batch instead of once per element.
+ */
+public final class BlockingLogQueue<E> implements LogQueue<E> {
+    private final LinkedBlockingQueue<E> queue;
+    private final int capacity;
+
+    // Only used by the consumer
+    private final ArrayList<E> batch = new ArrayList<>();
+
+    public BlockingLogQueue(int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public boolean offer(@NotNull E element) {
+        return queue.offer(element);
+    }
+
+    @Override
+    public int drain(@NotNull Consumer<? super E> consumer, int limit) {
+        int count = queue.drainTo(batch, limit);
+
+        for (int i = 0; i < count; i++) {
+            consumer.accept(batch.get(i));
+        }
+
+        batch.clear();
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,45 @@
+package com.toxicstoxm.YAJL.io;
+
+/**
+ * Snapshot of the log file compression metrics.
+ *
+ * @param filesCompressed number of files compressed successfully
+ * @param filesFailed number of files that could not be compressed
+ * @param filesInProgress number of files queued or currently being compressed
+ * @param bytesIn uncompressed bytes of all successfully compressed files
+ * @param bytesOut compressed bytes of all successfully compressed files
+ * @param pendingBytes uncompressed bytes of the files in progress
+ * @param processedBytes bytes of the files in progress that have already been compressed
+ * @param busyNanos total time spent compressing files, summed over all files
+ */
+public record CompressionStats(
+        long filesCompressed,
+        long filesFailed,
+        int filesInProgress,
+        long bytesIn,
+        long bytesOut,
+        long pendingBytes,
+        long processedBytes,
+        long busyNanos
+) {
+    /**
+     * @return the share of the files in progress that has already been compressed, from {@code 0} to {@code 1}
+     */
+    public double progress() {
+        return pendingBytes == 0 ? 1 : Math.min(1, (double) processedBytes / pendingBytes);
+    }
+
+    /**
+     * @return uncompressed bytes compressed per second of compression time
+     */
+    public double throughput() {
+        return busyNanos == 0 ? 0 : bytesIn * 1_000_000_000d / busyNanos;
+    }
+
+    /**
+     * @return compressed size relative to the uncompressed size, e.g. {@code 0.1} for a tenth
+     */
+    public double ratio() {
+        return bytesIn == 0 ? 0 : (double) bytesOut / bytesIn;
+    }
+}
@@ -0,0 +1,73 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Writes colored lines to one or more {@link PrintStream}s, e.g. {@link System#out}.
+ * Batches are concatenated and written to each stream with a single {@code write} call.
+ */
+public final class ConsoleAppender implements Appender {
+    private static final int MAX_RETAINED_BATCH_CAPACITY = 1024 * 1024;
+
+    private final List<PrintStream> outputs;
+
+    // Only used by batch appends, which are guarded by this appender's lock
+    private final Utf8Buffer batch = new Utf8Buffer(8192);
+
+    public ConsoleAppender(@NotNull List<PrintStream> outputs) {
+        this.outputs = List.copyOf(outputs);
+    }
+
+    public ConsoleAppender(@NotNull PrintStream output) {
+        this(List.of(output));
+    }
+
+    @Override
+    public void append(@NotNull LogLine line) {
+        for (PrintStream output : outputs) {
+            line.getBytes().printTo(output);
+        }
+    }
+
+    @Override
+    public synchronized void append(@NotNull List<LogLine> lines) {
+        for (LogLine line : lines) {
+            batch.append(line.getBytes());
+        }
+
+        for (PrintStream output : outputs) {
+            batch.printTo(output);
+        }
+
+        batch.reset(MAX_RETAINED_BATCH_CAPACITY);
+    }
+
+    @Override
+    public void flush() {
+        for (PrintStream output : outputs) {
+            output.flush();
+        }
+    }
+
+    /**
+     * Only flushes the outputs. They are owned by the caller, so they are not closed.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public boolean isColored() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsoleAppender [Outputs=" + outputs.size() + "]";
+    }
+}
@@ -0,0 +1,28 @@
+package com.toxicstoxm.YAJL.io;
+
+/**
+ * Defines when the log file writer forces written lines to the storage device.
+ * Every line written since the last force is committed by the next one, so a single {@code force}
+ * covers a whole group of lines.
+ */
+public enum DurabilityMode {
+    /**
+     * Lines are never forced. They reach the disk whenever the operating system writes its page cache back.
+     */
+    NONE,
+
+    /**
+     * Written lines are forced at most once per configured durability interval.
+     */
+    INTERVAL,
+
+    /**
+     * A batch of lines is forced if it contains at least one line at or above the configured durability level.
+     */
+    LEVEL_AT_LEAST,
+
+    /**
+     * Every batch of lines the writer thread takes from the queue is forced.
+     */
+    EVERY_BATCH
+}
@@ -1,15 +1,26 @@
 package com.toxicstoxm.YAJL.io;
 
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.LoggerConfig;
 import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import com.toxicstoxm.YAJL.util.TimestampCache;
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.attribute.FileTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -17,12 +28,14 @@ import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.zip.GZIPOutputStream;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
 
 import static java.nio.file.StandardOpenOption.APPEND;
 import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
 
-public final class LogFileManager {
+public final class LogFileManager implements Appender {
     private enum State {
         STOPPED, STARTING, RUNNING, STOPPING
     }
@@ -30,31 +43,112 @@ public final class LogFileManager {
     private final Object lifecycleLock = new Object();
     private volatile State state = State.STOPPED;
 
-    private final BlockingQueue<String> logQueue =
-            new LinkedBlockingQueue<>(10_000);
+    private static final int WRITE_BATCH_SIZE = 256;
+    private static final int FLUSH_THRESHOLD = 128;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // Marks a text log file written through a memory mapping until it was closed and truncated to its length
+    private static final String MAPPED_MARKER_SUFFIX = ".mapped";
+    private static final TimestampCache SESSION_ID_FORMAT = new TimestampCache("yyyy-MM-dd_HH-mm-ss-SSS");
+
+    private volatile LogQueue<PendingLine> logQueue;
+    private volatile PendingLinePool linePool;
+    private final WakeupSignal writerSignal = new WakeupSignal();
 
     private ExecutorService writeExecutor;
-    private ExecutorService maintenanceExecutor;
+    private ForkJoinPool maintenanceExecutor;
 
-    private volatile BufferedWriter writer;
+    private volatile OutputStream writer;
+    private volatile boolean binary;
+    private FileChannel channel;
     private volatile File currentLogFile;
     private volatile String currentLogFileCanonicalPath;
 
+    // Queue metrics, lines are counted once, either as spilled or by the reason they were lost
     private final AtomicLong dropCount = new AtomicLong();
+    private final AtomicLong droppedBelowLevel = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    // Number of producers waiting for the writer thread to drop a queued line, if the overflow policy is DROP_OLDEST
+    private final AtomicInteger pendingEvictions = new AtomicInteger();
+
+    // Only text files can spill, an overflow file next to a binary file would lack its header and string definitions
+    private volatile boolean spillEnabled;
+    private final Object spillLock = new Object();
+    private OutputStream spillWriter;
+    private volatile String spillFileCanonicalPath;
+    private boolean spillDirty = false;
     private int pendingWrites = 0;
 
+    // Rotation state of the current file, only used by the writer thread
+    private long currentFileSize = 0;
+    private long emptyFileSize = 0;
+    private long rotateAtSize = Long.MAX_VALUE;
+    private long rotateAtMillis = Long.MAX_VALUE;
+
+    // Number of interned strings already defined in the current binary file, only used by the writer thread
+    private int definedStrings = 0;
+
+    // Durability state, only used by the writer thread
+    private final List<PendingLine> awaitingDurability = new ArrayList<>();
+    private boolean unforcedWrites = false;
+    private boolean forceRequested = false;
+    private long lastForceNanos = System.nanoTime();
+
     private final AtomicInteger compressing = new AtomicInteger(0);
 
+    // Compression metrics
+    private final AtomicLong filesCompressed = new AtomicLong();
+    private final AtomicLong filesFailed = new AtomicLong();
+    private final AtomicLong compressedBytesIn = new AtomicLong();
+    private final AtomicLong compressedBytesOut = new AtomicLong();
+    private final AtomicLong pendingCompressionBytes = new AtomicLong();
+    private final AtomicLong processedCompressionBytes = new AtomicLong();
+    private final AtomicLong compressionNanos = new AtomicLong();
+
+    // Milliseconds since the epoch, for age and wall-clock boundary rotation
+    private final LongSupplier wallClock;
+
+    public LogFileManager() {
+        this(System::currentTimeMillis);
+    }
+
+    LogFileManager(@NotNull LongSupplier wallClock) {
+        this.wallClock = wallClock;
+    }
+
     public void init() {
         synchronized (lifecycleLock) {
             if (state == State.RUNNING || state == State.STARTING) return;
             state = State.STARTING;
+            binary = LoggerManager.getSettings().isBinaryLogFiles();
+            spillEnabled = LoggerManager.getSettings().isLogFileOverflowSpill();
+            if (binary && spillEnabled) {
+                LoggerManager.internalLog("Overflow spill is not supported for binary log files, lines that don't fit into the queue are dropped");
+                spillEnabled = false;
+            }
+
+            logQueue = LoggerManager.getSettings().getLogFileQueueType()
+                    .create(LoggerManager.getSettings().getLogFileQueueCapacity());
+            // lines in flight are either queued or part of the batch the writer is working on
+            linePool = new PendingLinePool(logQueue.capacity() + WRITE_BATCH_SIZE);
 
             writeExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "YAJL-LogWriter"));
-            maintenanceExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "YAJL-LogMaintenance"));
+            maintenanceExecutor = new ForkJoinPool(
+                    Math.max(1, LoggerManager.getSettings().getMaintenanceThreads()),
+                    pool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("YAJL-LogMaintenance-" + thread.getPoolIndex());
+                        return thread;
+                    },
+                    null,
+                    false
+            );
 
             ensureLogDirectory();
-            startNewSessionLogFile();
+            List<File> unclosedFiles = startNewSessionLogFile();
 
             // Now we are ready to process old files
             state = State.RUNNING;
@@ -64,55 +158,516 @@ public final class LogFileManager {
                 scheduleCompressionForOldFiles();
             }
 
+            scheduleRecovery(unclosedFiles);
+
             scheduleEnforceFileLimit();
             startAsyncWriter();
         }
     }
 
-    public void writeLogMessage(String message) {
-        if (state != State.RUNNING) {
+    public void writeLogMessage(@NotNull String message) {
+        if (binary) {
+            writeLogMessage((message + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        PendingLine entry = acquire(null);
+        entry.bytes.append(message).appendLineSeparator();
+        enqueue(entry);
+    }
+
+    /**
+     * Queues an already encoded log line.
+     *
+     * @param line UTF-8 encoded line, including the line separator. Must not be modified afterwards.
+     */
+    public void writeLogMessage(byte @NotNull [] line) {
+        PendingLine entry = acquire(null);
+        if (binary) {
+            BinaryLogEncoder.text(line, 0, line.length, entry.bytes);
+        } else {
+            entry.bytes.append(line, 0, line.length);
+        }
+        enqueue(entry);
+    }
+
+    /**
+     * Queues the line. If {@link LoggerConfig#isBlockUntilDurable()} is enabled and the line is at or above the
+     * durability level, the calling thread waits until the line has been forced to disk or the durability timeout elapsed.
+     */
+    @Override
+    public void append(@NotNull LogLine line) {
+        PendingLine entry = acquire(line.getLevel());
+        Utf8Buffer bytes = line.getBytes();
+        if (binary) {
+            BinaryLogEncoder.text(bytes.array(), 0, bytes.length(), entry.bytes);
+        } else {
+            entry.bytes.append(bytes);
+        }
+        enqueue(entry);
+    }
+
+    /**
+     * Queues an event for a binary log file without formatting it, see {@link LoggerConfig#isBinaryLogFiles()}.
+     * Only the arguments are converted to their binary representation, everything else is written as a reference to an interned string.
+     *
+     * @param template the unformatted message
+     * @param args the message arguments. Values other than strings, numbers and booleans are captured as their {@code toString()}.
+     */
+    public void appendBinary(@NotNull LogLevel level, @NotNull String prefix, @NotNull String template, Object @NotNull [] args, @NotNull LogFields fields) {
+        if (!binary) {
+            // only while the file format is switched, loggers may still use the previous pipeline.
+            // The event has no layout here, so it is dropped rather than written as a line in a different format.
+            discarded.incrementAndGet();
+            return;
+        }
+
+        long timestamp = LoggerManager.getSettings().getClockSource().now();
+        PendingLine entry = acquire(level);
+        BinaryLogEncoder.acquire().event(timestamp, level, prefix, template, args, fields, entry.bytes);
+        enqueue(entry);
+    }
+
+    /**
+     * Takes a line from the pool. The calling thread becomes its waiter if it has to wait until the line is durable.
+     */
+    private @NotNull PendingLine acquire(@Nullable LogLevel level) {
+        LoggerConfig settings = LoggerManager.getSettings();
+        int levelValue = level != null ? level.getLevel() : PendingLine.NO_LEVEL;
+
+        boolean await = settings.isBlockUntilDurable()
+                && settings.getDurabilityMode() != DurabilityMode.NONE
+                && levelValue >= settings.getDurabilityLevel().getLevel();
+
+        PendingLinePool pool = linePool;
+        PendingLine entry = pool != null ? pool.acquire() : new PendingLine();
+        return entry.set(levelValue, await ? Thread.currentThread() : null);
+    }
+
+    private void enqueue(@NotNull PendingLine entry) {
+        if (offer(entry) && entry.waiter != null) {
+            entry.await(TimeUnit.MILLISECONDS.toNanos(LoggerManager.getSettings().getDurabilityTimeout()));
+        }
+    }
+
+    /**
+     * Hands a line back to the pool once nobody refers to it anymore.
+     */
+    private void recycle(@NotNull PendingLine entry) {
+        PendingLinePool pool = linePool;
+        if (pool != null && entry.waiter == null) {
+            pool.release(entry);
+        }
+    }
+
+    /**
+     * Queues the line, applying the configured {@link OverflowPolicy} while the queue is full.
+     *
+     * @return {@code true} if the line was queued
+     */
+    private boolean offer(@NotNull PendingLine entry) {
+        LogQueue<PendingLine> queue = logQueue;
+        if (state != State.RUNNING || queue == null) {
+            recycle(entry);
+            return false;
+        }
+
+        if (queue.offer(entry)) {
+            writerSignal.signal();
+            return true;
+        }
+
+        LoggerConfig settings = LoggerManager.getSettings();
+
+        switch (settings.getLogFileOverflowPolicy()) {
+            case DROP -> overflow(entry, dropCount);
+            case DROP_BELOW_LEVEL -> {
+                if (entry.level < settings.getLogFileDropThreshold().getLevel()) {
+                    overflow(entry, droppedBelowLevel);
+                    return false;
+                }
+                return offerBlocking(queue, entry, settings, false);
+            }
+            case DROP_OLDEST -> {
+                return offerBlocking(queue, entry, settings, true);
+            }
+            case BLOCK -> {
+                return offerBlocking(queue, entry, settings, false);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retries to queue the line until the block timeout elapsed.
+     * The queue only allows the writer thread to take lines, so to drop the oldest lines producers ask it to evict them.
+     * A producer withdraws its request once its line was queued or timed out, so the writer doesn't evict lines nobody waits for.
+     */
+    private boolean offerBlocking(@NotNull LogQueue<PendingLine> queue, @NotNull PendingLine entry, @NotNull LoggerConfig settings, boolean evictOldest) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getLogFileBlockTimeout());
+        int attempt = 0;
+
+        if (evictOldest) {
+            pendingEvictions.incrementAndGet();
+            writerSignal.signal();
+        }
+
+        try {
+            while (!queue.offer(entry)) {
+                if (state != State.RUNNING || System.nanoTime() - deadline >= 0) {
+                    overflow(entry, timedOut);
+                    return false;
+                }
+                WaitStrategy.PARK.idle(attempt++);
+            }
+        } finally {
+            if (evictOldest) {
+                pendingEvictions.decrementAndGet();
+            }
+        }
+        writerSignal.signal();
+        return true;
+    }
+
+    /**
+     * Spills a line that could not be queued to the overflow file, or counts it as dropped.
+     */
+    private void overflow(@NotNull PendingLine entry, @NotNull AtomicLong reason) {
+        boolean spill = spillEnabled && spill(entry.bytes);
+        recycle(entry);
+
+        if (spill) {
+            spilled.incrementAndGet();
             return;
         }
 
-        if (!logQueue.offer(message)) {
-            if (dropCount.incrementAndGet() % 1000 == 0) {
-                LoggerManager.internalLog(
-                        "Dropped log messages: " + dropCount.get()
-                );
+        if (reason.incrementAndGet() % 1000 == 0) {
+            LoggerManager.internalLog(
+                    "Dropped log messages: " + (dropCount.get() + droppedBelowLevel.get() + evicted.get() + timedOut.get() + discarded.get())
+            );
+        }
+    }
+
+    /**
+     * Writes the line to the overflow file next to the current log file, opening it on first use.
+     *
+     * @return {@code true} if the line was written
+     */
+    private boolean spill(@NotNull Utf8Buffer line) {
+        synchronized (spillLock) {
+            try {
+                if (spillWriter == null) {
+                    File logFile = currentLogFile;
+                    if (logFile == null) return false;
+
+                    File spillFile = new File(logFile.getPath().replaceFirst("\\.log$", "") + ".overflow.log");
+                    spillFileCanonicalPath = spillFile.getCanonicalPath();
+                    spillWriter = new BufferedOutputStream(Files.newOutputStream(spillFile.toPath(), CREATE, APPEND), WRITE_BUFFER_SIZE);
+                }
+
+                line.writeTo(spillWriter);
+                spillDirty = true;
+                return true;
+            } catch (IOException e) {
+                LoggerManager.internalLog("Failed to write to overflow file", e);
+                return false;
             }
         }
     }
 
+    private void flushSpill(boolean close) {
+        synchronized (spillLock) {
+            if (spillWriter == null) return;
+
+            try {
+                if (spillDirty || close) {
+                    spillWriter.flush();
+                    spillDirty = false;
+                }
+                if (close) {
+                    spillWriter.close();
+                }
+            } catch (IOException e) {
+                LoggerManager.internalLog("Failed to write to overflow file", e);
+            } finally {
+                if (close) {
+                    spillWriter = null;
+                    spillFileCanonicalPath = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops a queued line on request of a producer. Runs on the writer thread.
+     */
+    private void evict(@NotNull PendingLine entry) {
+        entry.complete();
+        overflow(entry, evicted);
+    }
+
+    /**
+     * @return a snapshot of the log file queue metrics since this manager was created
+     */
+    public @NotNull LogQueueStats getQueueStats() {
+        LogQueue<PendingLine> queue = logQueue;
+
+        return new LogQueueStats(
+                queue != null ? queue.size() : 0,
+                queue != null ? queue.capacity() : 0,
+                dropCount.get(),
+                droppedBelowLevel.get(),
+                evicted.get(),
+                timedOut.get(),
+                discarded.get(),
+                spilled.get()
+        );
+    }
+
+    /**
+     * Does nothing, the writer thread flushes the file as soon as it caught up with the queue.
+     */
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {
+        shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "LogFileManager [File='" + currentLogFileCanonicalPath + "']";
+    }
+
     private void startAsyncWriter() {
+        final LogQueue<PendingLine> queue = logQueue;
+        final BooleanSupplier hasWork = () -> state != State.RUNNING || !queue.isEmpty();
+
         writeExecutor.execute(() -> {
             try {
-                while (state == State.RUNNING || !logQueue.isEmpty()) {
-                    String msg = logQueue.poll(500, TimeUnit.MILLISECONDS);
-                    if (msg != null) {
-                        writeToFile(msg);
+                int idle = 0;
+
+                while ((state == State.RUNNING || !queue.isEmpty()) && !Thread.currentThread().isInterrupted()) {
+                    rotateIfDue();
+
+                    // Only a full queue keeps waiting producers from queueing their lines
+                    int evictions = pendingEvictions.get();
+                    if (evictions > 0 && queue.size() >= queue.capacity()) {
+                        queue.drain(this::evict, evictions);
                     }
+
+                    int drained = queue.drain(this::writeToFile, WRITE_BATCH_SIZE);
+
+                    if (drained == 0) {
+                        // Interval commits may still be due while the queue is quiet
+                        commitIfDue(false);
+                        writerSignal.idle(idle++, hasWork, idleTimeoutNanos());
+                        continue;
+                    }
+                    idle = 0;
+
+                    // Flush once the queue has been drained, so lines don't linger in the buffer while it's quiet
+                    if (drained < WRITE_BATCH_SIZE || pendingWrites >= FLUSH_THRESHOLD) {
+                        flushWriter();
+                        flushSpill(false);
+                    }
+
+                    commitIfDue(true);
                 }
-            } catch (InterruptedException ignored) {
             } finally {
                 flushAndCloseWriter();
+                completeAwaiting();
+                flushSpill(true);
             }
         });
     }
 
-    private void writeToFile(String message) {
-        BufferedWriter w = writer;
-        if (w == null) return;
+    /**
+     * @return how long the idle writer may sleep until a timed rotation or an interval commit is due
+     */
+    private long idleTimeoutNanos() {
+        long timeout = WakeupSignal.MAX_IDLE_NANOS;
+
+        if (rotateAtMillis != Long.MAX_VALUE) {
+            timeout = Math.min(timeout, TimeUnit.MILLISECONDS.toNanos(rotateAtMillis - wallClock.getAsLong()));
+        }
+
+        LoggerConfig settings = LoggerManager.getSettings();
+        if (unforcedWrites && settings.getDurabilityMode() == DurabilityMode.INTERVAL) {
+            long interval = TimeUnit.MILLISECONDS.toNanos(settings.getDurabilityInterval());
+            timeout = Math.min(timeout, interval - (System.nanoTime() - lastForceNanos));
+        }
+
+        return Math.max(0, timeout);
+    }
+
+    private void writeToFile(@NotNull PendingLine line) {
+        if (line.waiter != null) {
+            awaitingDurability.add(line);
+        }
+
+        OutputStream w = writer;
+        if (w == null) {
+            recycle(line);
+            return;
+        }
 
         try {
-            w.write(message);
-            w.newLine();
+            if (binary) {
+                defineNewStrings(w);
+            }
 
-            if (++pendingWrites >= 128) {
-                w.flush();
-                pendingWrites = 0;
+            int length = line.bytes.length();
+            line.bytes.writeTo(w);
+            LogMetrics.countWrite(length);
+            if (line.queuedAt != 0) {
+                LogMetrics.recordWriterLag(System.nanoTime() - line.queuedAt);
+            }
+            pendingWrites++;
+            currentFileSize += length;
+            unforcedWrites = true;
+
+            if (line.level >= LoggerManager.getSettings().getDurabilityLevel().getLevel()) {
+                forceRequested = true;
             }
         } catch (IOException e) {
             LoggerManager.internalLog("Failed to write log message", e);
+        } finally {
+            recycle(line);
+        }
+    }
+
+    /**
+     * Writes a define record for every string interned since the last call, so it precedes the first event referring to it.
+     * Events can only refer to strings that were interned before they were queued, so all of them are covered.
+     */
+    private void defineNewStrings(@NotNull OutputStream w) throws IOException {
+        int size = BinaryLogFormat.size();
+
+        while (definedStrings < size) {
+            byte[] define = BinaryLogEncoder.define(definedStrings, BinaryLogFormat.get(definedStrings));
+            w.write(define);
+            currentFileSize += define.length;
+            definedStrings++;
+        }
+    }
+
+    /**
+     * Forces the current file according to the configured {@link DurabilityMode}.
+     * All lines written since the last force are committed together, so a single force
+     * covers every line that arrived while the previous one was in progress.
+     *
+     * @param batchWritten whether the writer just wrote a batch of lines
+     */
+    private void commitIfDue(boolean batchWritten) {
+        LoggerConfig settings = LoggerManager.getSettings();
+
+        boolean due = switch (settings.getDurabilityMode()) {
+            case NONE -> false;
+            case EVERY_BATCH -> batchWritten;
+            case LEVEL_AT_LEAST -> forceRequested;
+            case INTERVAL -> unforcedWrites
+                    && System.nanoTime() - lastForceNanos >= TimeUnit.MILLISECONDS.toNanos(settings.getDurabilityInterval());
+        };
+
+        if (due) {
+            flushWriter();
+            forceWriter();
+        }
+
+        // Waiters of lines that will never be forced must not wait for their timeout
+        if (settings.getDurabilityMode() == DurabilityMode.NONE) {
+            completeAwaiting();
+        }
+    }
+
+    /**
+     * Forces the written bytes of the current file to the storage device and wakes up all threads waiting for them.
+     */
+    private void forceWriter() {
+        OutputStream w = writer;
+        long start = System.nanoTime();
+
+        try {
+            if (w instanceof MappedFileOutputStream mapped) {
+                mapped.force();
+            } else if (channel != null) {
+                channel.force(false);
+            }
+            LogMetrics.recordForce(System.nanoTime() - start);
+        } catch (IOException e) {
+            LoggerManager.internalLog("Failed to force log file to disk", e);
+        }
+
+        unforcedWrites = false;
+        forceRequested = false;
+        lastForceNanos = System.nanoTime();
+        completeAwaiting();
+    }
+
+    private void completeAwaiting() {
+        if (awaitingDurability.isEmpty()) return;
+
+        for (PendingLine line : awaitingDurability) {
+            line.complete();
+        }
+        awaitingDurability.clear();
+    }
+
+    /**
+     * Checks the rotation triggers of the current file.
+     * Empty files are not rotated, their time based triggers are just moved on.
+     */
+    private void rotateIfDue() {
+        if (state != State.RUNNING) return;
+
+        boolean due = currentFileSize >= rotateAtSize;
+
+        if (!due && rotateAtMillis != Long.MAX_VALUE) {
+            long now = wallClock.getAsLong();
+            if (now >= rotateAtMillis) {
+                if (currentFileSize == emptyFileSize) {
+                    scheduleTimedRotation(now);
+                    return;
+                }
+                due = true;
+            }
+        }
+
+        if (due) {
+            rotate();
+        }
+    }
+
+    private void scheduleTimedRotation(long now) {
+        LoggerConfig settings = LoggerManager.getSettings();
+
+        rotateAtMillis = Math.min(
+                settings.getLogFileMaxAge() > 0 ? now + settings.getLogFileMaxAge() * 60_000 : Long.MAX_VALUE,
+                settings.getLogFileRotationBoundary().next(now, ZoneId.systemDefault())
+        );
+    }
+
+    /**
+     * Closes the current file, hands it over to compression and continues in a new file.
+     * Runs on the writer thread, so producers keep queueing lines while the files are switched.
+     */
+    private void rotate() {
+        flushAndCloseWriter();
+        openLogFile();
+        scheduleEnforceFileLimit();
+    }
+
+    private void flushWriter() {
+        OutputStream w = writer;
+        if (w == null) return;
+
+        try {
+            w.flush();
+            pendingWrites = 0;
+        } catch (IOException e) {
+            LoggerManager.internalLog("Failed to flush log writer", e);
         }
     }
 
@@ -124,6 +679,7 @@ public final class LogFileManager {
             state = State.STOPPING;
         }
 
+        writerSignal.signal();
         shutdownExecutor(writeExecutor);
         shutdownExecutor(maintenanceExecutor);
 
@@ -149,14 +705,27 @@ public final class LogFileManager {
     }
 
     private void flushAndCloseWriter() {
-        BufferedWriter w = writer;
-        writer = null;
+        OutputStream w = writer;
 
         if (w != null) {
             try {
                 w.flush();
+
+                // lines written since the last commit must not lose their durability when the file is closed
+                if (unforcedWrites && LoggerManager.getSettings().getDurabilityMode() != DurabilityMode.NONE) {
+                    forceWriter();
+                }
+
+                writer = null;
+                channel = null;
                 w.close();
 
+                // the mapped file was truncated to its length, so it no longer needs to be recovered
+                if (w instanceof MappedFileOutputStream && currentLogFile != null) {
+                    File marker = mappedMarker(currentLogFile);
+                    if (marker.exists()) deleteFile(marker);
+                }
+
                 // mark old file for compression if enabled
                 if (LoggerManager.getSettings().isCompressOldLogFiles() && currentLogFile != null) {
                     File oldFile = currentLogFile;
@@ -170,6 +739,11 @@ public final class LogFileManager {
                 LoggerManager.internalLog("Failed to close log writer", e);
             }
         }
+        writer = null;
+        channel = null;
+        unforcedWrites = false;
+        forceRequested = false;
+        completeAwaiting();
 
         currentLogFile = null;
         currentLogFileCanonicalPath = null;
@@ -185,17 +759,35 @@ public final class LogFileManager {
         }
     }
 
-    private void startNewSessionLogFile() {
+    /**
+     * @return the log files of previous sessions that were written through a memory mapping and never closed
+     */
+    private @NotNull List<File> startNewSessionLogFile() {
+        recoverInterruptedCompression();
+        List<File> unclosedFiles = findUnclosedMappedFiles();
+
         // compress any old files that are still .log
         if (LoggerManager.getSettings().isCompressOldLogFiles()) {
             scheduleCompressionForOldFiles(); // look at all files in dir
         }
 
-        String name = LoggerManager.getSettings()
+        openLogFile();
+        return unclosedFiles;
+    }
+
+    private void openLogFile() {
+        String baseName = LoggerManager.getSettings()
                 .getLogFileNamePattern()
-                .replace("{date}", generateSessionId()) + ".log";
+                .replace("{date}", generateSessionId());
+        String extension = binary ? BinaryLogFormat.FILE_EXTENSION : ".log";
+
+        Path directory = Path.of(LoggerManager.getSettings().getLogDirectory());
+        Path file = directory.resolve(baseName + extension);
 
-        Path file = Path.of(LoggerManager.getSettings().getLogDirectory(), name);
+        // Files rotated within the same millisecond must not continue the previous file or collide with its compression
+        for (int n = 1; isTaken(file); n++) {
+            file = directory.resolve(baseName + "-" + n + extension);
+        }
 
         currentLogFile = file.toFile();
 
@@ -206,11 +798,119 @@ public final class LogFileManager {
         }
 
         try {
-            writer = Files.newBufferedWriter(file, CREATE, APPEND);
+            if (LoggerManager.getSettings().isMemoryMappedLogFiles()) {
+                // binary files may legitimately end with zero bytes, the decoder stops at the zero-filled tail instead
+                if (!binary) {
+                    Files.createFile(mappedMarker(currentLogFile).toPath());
+                }
+                writer = new MappedFileOutputStream(file, LoggerManager.getSettings().getMemoryMappedChunkSize() * 1024);
+            } else {
+                // keep the channel around, so the durability modes can force it
+                channel = FileChannel.open(file, CREATE, WRITE, APPEND);
+                writer = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+            }
         } catch (IOException e) {
-            LoggerManager.internalLog("Failed to create new buffered writer", e);
+            LoggerManager.internalLog("Failed to create new log file writer", e);
         }
         pendingWrites = 0;
+        currentFileSize = 0;
+        emptyFileSize = 0;
+        definedStrings = 0;
+
+        if (binary && writer != null) {
+            try {
+                byte[] header = BinaryLogEncoder.header();
+                writer.write(header);
+                currentFileSize = header.length;
+                emptyFileSize = header.length;
+            } catch (IOException e) {
+                LoggerManager.internalLog("Failed to write binary log file header", e);
+            }
+        }
+
+        long maxSize = LoggerManager.getSettings().getLogFileMaxSize();
+
+        rotateAtSize = maxSize > 0 ? maxSize * 1024 : Long.MAX_VALUE;
+        scheduleTimedRotation(wallClock.getAsLong());
+    }
+
+    private static boolean isTaken(@NotNull Path file) {
+        return Files.exists(file)
+                || Files.exists(Path.of(file + ".compressing"))
+                || Files.exists(Path.of(file + ".gz"))
+                || Files.exists(Path.of(file + MAPPED_MARKER_SUFFIX));
+    }
+
+    private static @NotNull File mappedMarker(@NotNull File logFile) {
+        return new File(logFile.getPath() + MAPPED_MARKER_SUFFIX);
+    }
+
+    private void recoverInterruptedCompression() {
+        // files that were still waiting for compression when the application stopped
+        File[] interrupted = Path.of(LoggerManager.getSettings().getLogDirectory()).toFile()
+                .listFiles(f -> f.getName().endsWith(".compressing"));
+        if (interrupted != null) {
+            for (File f : interrupted) {
+                File log = new File(f.getPath().replace(".compressing", ""));
+                if (!log.exists() && !f.renameTo(log)) {
+                    LoggerManager.internalLog("Failed to recover interrupted compression: " + f);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the log files whose memory-mapped writer was never closed, they may end with a zero-filled tail
+     */
+    private @NotNull List<File> findUnclosedMappedFiles() {
+        File[] markers = Path.of(LoggerManager.getSettings().getLogDirectory()).toFile()
+                .listFiles(f -> f.getName().endsWith(".log" + MAPPED_MARKER_SUFFIX));
+        if (markers == null) return List.of();
+
+        List<File> files = new ArrayList<>(markers.length);
+        for (File marker : markers) {
+            String path = marker.getPath();
+            files.add(new File(path.substring(0, path.length() - MAPPED_MARKER_SUFFIX.length())));
+        }
+        return files;
+    }
+
+    private void scheduleRecovery(@NotNull List<File> files) {
+        ExecutorService exec = maintenanceExecutor;
+        if (files.isEmpty() || exec == null || state != State.RUNNING) return;
+
+        exec.execute(() -> recoverMappedFiles(files));
+    }
+
+    /**
+     * Removes the zero-filled tail memory-mapped files keep if the application crashed, then hands them over to compression.
+     * The files keep their last modified time, which orders them for the file limit.
+     * Files that could not be recovered keep their marker and are retried on the next start.
+     */
+    private synchronized void recoverMappedFiles(@NotNull List<File> files) {
+        for (File f : files) {
+            if (state != State.RUNNING) return;
+
+            if (f.exists()) {
+                try {
+                    Path path = f.toPath();
+                    FileTime lastModified = Files.getLastModifiedTime(path);
+                    long trimmed = MappedFileOutputStream.trimTrailingZeros(path);
+                    if (trimmed > 0) {
+                        Files.setLastModifiedTime(path, lastModified);
+                        LoggerManager.internalLog("Recovered log file " + f + ", removed " + trimmed + " unused bytes");
+                    }
+                } catch (IOException e) {
+                    LoggerManager.internalLog("Failed to recover log file: " + f, e);
+                    continue;
+                }
+            }
+            deleteFile(mappedMarker(f));
+
+            if (f.exists() && LoggerManager.getSettings().isCompressOldLogFiles()) {
+                scheduleCompression(f);
+            }
+        }
     }
 
     private void scheduleCompressionForOldFiles() {
@@ -218,57 +918,107 @@ public final class LogFileManager {
 
         for (File f : files) {
             if (f.toString().endsWith(".gz")) continue;
-            File gz = new File(f.getPath() + ".gz");
-            File tmp = new File(f.getPath() + ".compressing");
 
-            if (gz.exists() || tmp.exists()) continue;
+            // unclosed memory-mapped files are compressed once they were recovered
+            if (mappedMarker(f).exists()) continue;
 
-            if (!f.renameTo(tmp)) {
-                LoggerManager.internalLog("Failed to mark file for compression: " + f);
-                continue;
-            }
+            scheduleCompression(f);
+        }
+    }
+
+    private void scheduleCompression(@NotNull File f) {
+        File gz = new File(f.getPath() + ".gz");
+        File tmp = new File(f.getPath() + ".compressing");
+
+        if (gz.exists() || tmp.exists()) return;
 
-            submitCompression(tmp, gz);
+        if (!f.renameTo(tmp)) {
+            LoggerManager.internalLog("Failed to mark file for compression: " + f);
+            return;
         }
+
+        submitCompression(tmp, gz);
     }
 
     private void submitCompression(File tmp, File gz) {
-        ExecutorService exec = maintenanceExecutor;
+        ForkJoinPool exec = maintenanceExecutor;
         if (exec == null || state != State.RUNNING) {
             tmp.renameTo(new File(tmp.getPath().replace(".compressing", "")));
             return;
         }
 
+        long size = tmp.length();
         compressing.incrementAndGet();
-        exec.execute(() -> compressLogFile(tmp, gz));
+        pendingCompressionBytes.addAndGet(size);
+        exec.execute(() -> compressLogFile(tmp, gz, size));
     }
 
-    private void compressLogFile(@NotNull File tmp, @NotNull File gz) {
-        try (GZIPOutputStream gzip = new GZIPOutputStream(Files.newOutputStream(gz.toPath()))) {
-            // Copy the entire contents of the temporary file into the GZIP stream
-            Files.copy(tmp.toPath(), gzip);
+    private void compressLogFile(@NotNull File tmp, @NotNull File gz, long size) {
+        LoggerConfig settings = LoggerManager.getSettings();
+        long start = System.nanoTime();
+        long[] processed = {0};
+
+        try {
+            // Large files are split into gzip members compressed in parallel by the other maintenance threads
+            long compressedSize = ParallelGzip.compress(
+                    tmp.toPath(),
+                    gz.toPath(),
+                    settings.getCompressionLevel(),
+                    settings.getParallelCompressionThreshold() * 1024L,
+                    maintenanceExecutor,
+                    bytes -> {
+                        processed[0] += bytes;
+                        processedCompressionBytes.addAndGet(bytes);
+                    }
+            );
+
+            filesCompressed.incrementAndGet();
+            compressedBytesIn.addAndGet(size);
+            compressedBytesOut.addAndGet(compressedSize);
 
             // Delete the temporary .compressing file
             deleteFile(tmp);
 
             // Check if compressed file exceeds the size limit and delete if so
-            if (gz.length() >
-                    LoggerManager.getSettings().getCompressedFileSizeLimit() * 1024L) {
+            if (compressedSize > settings.getCompressedFileSizeLimit() * 1024L) {
                 deleteFile(gz);
             }
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
+            filesFailed.incrementAndGet();
             LoggerManager.internalLog("Compression failed for " + tmp, e);
+            gz.delete();
             tmp.renameTo(new File(tmp.getPath().replace(".compressing", "")));
         } finally {
+            long nanos = System.nanoTime() - start;
+            compressionNanos.addAndGet(nanos);
+            LogMetrics.recordCompression(nanos);
+            pendingCompressionBytes.addAndGet(-size);
+            processedCompressionBytes.addAndGet(-processed[0]);
+
             if (compressing.decrementAndGet() == 0 && state == State.RUNNING) {
                 enforceFileLimit();
             }
         }
     }
 
+    /**
+     * @return a snapshot of the compression metrics since this manager was created
+     */
+    public @NotNull CompressionStats getCompressionStats() {
+        return new CompressionStats(
+                filesCompressed.get(),
+                filesFailed.get(),
+                compressing.get(),
+                compressedBytesIn.get(),
+                compressedBytesOut.get(),
+                pendingCompressionBytes.get(),
+                processedCompressionBytes.get(),
+                compressionNanos.get()
+        );
+    }
+
     private @NotNull String generateSessionId() {
-        return LocalDateTime.now()
-                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS"));
+        return SESSION_ID_FORMAT.format(LoggerManager.getSettings().getClockSource().now());
     }
 
     private void scheduleEnforceFileLimit() {
@@ -279,7 +1029,7 @@ public final class LogFileManager {
     }
 
 
-    private void enforceFileLimit() {
+    private synchronized void enforceFileLimit() {
         int limit = LoggerManager.getSettings().getLogFileLimit();
         if (limit < 0) return;
 
@@ -294,7 +1044,7 @@ public final class LogFileManager {
     }
 
     /**
-     * @return A list sorted in ascending order by "last modified", containing all log files (compressed and uncompressed) inside the current log directory except the current log file.
+     * @return A list sorted in ascending order by "last modified", containing all log files (compressed and uncompressed) inside the current log directory except the current log and overflow files.
      */
     private @NotNull List<File> getSortedLogFiles() {
         File dir = Path.of(LoggerManager.getSettings().getLogDirectory()).toFile();
@@ -302,8 +1052,10 @@ public final class LogFileManager {
         File[] files = dir.listFiles(f -> {
             String name = f.getName();
             try {
-                return (name.endsWith(".log") || name.endsWith(".gz")) &&
-                        (!f.getCanonicalPath().equals(currentLogFileCanonicalPath));
+                String path = f.getCanonicalPath();
+                return (name.endsWith(".log") || name.endsWith(BinaryLogFormat.FILE_EXTENSION) || name.endsWith(".gz")) &&
+                        !path.equals(currentLogFileCanonicalPath) &&
+                        !path.equals(spillFileCanonicalPath);
             } catch (IOException e) {
                 LoggerManager.internalLog("Failed to check canonical path for file: " + f, e);
                 return false;
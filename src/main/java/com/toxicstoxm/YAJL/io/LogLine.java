@@ -0,0 +1,52 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A rendered log line as handed to {@link Appender}s.
+ * <p>
+ * Instances are reused by the logging threads and by {@link AsyncAppender}.
+ * Appenders must not keep a reference to a line (or its bytes) after their {@code append} call returned.
+ * </p>
+ */
+@Getter
+public final class LogLine {
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private LogLevel level;
+    private String area;
+
+    /**
+     * UTF-8 encoded line, including the line separator.
+     */
+    private final Utf8Buffer bytes;
+
+    public LogLine() {
+        this(new Utf8Buffer(256));
+    }
+
+    public LogLine(@NotNull Utf8Buffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Sets the metadata of this line. The encoded bytes are written to {@link #getBytes()} directly.
+     */
+    public void set(LogLevel level, String area) {
+        this.level = level;
+        this.area = area;
+    }
+
+    /**
+     * Copies another line into this one, keeping the capacity of this line's buffer unless it grew huge.
+     */
+    public void copyFrom(@NotNull LogLine other) {
+        this.level = other.level;
+        this.area = other.area;
+        bytes.reset(MAX_RETAINED_CAPACITY);
+        bytes.append(other.bytes);
+    }
+}
@@ -0,0 +1,39 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue between the logging threads and a single background writer.
+ * <p>
+ * Any number of threads may {@link #offer(Object)} concurrently, but {@link #drain(Consumer, int)}
+ * must only ever be called by one consumer thread at a time.
+ * </p>
+ *
+ * @param <E> the element type
+ */
+public interface LogQueue<E> {
+    /**
+     * Adds an element without blocking.
+     *
+     * @return {@code false} if the queue is full
+     */
+    boolean offer(@NotNull E element);
+
+    /**
+     * Removes up to {@code limit} elements in FIFO order and passes them to the consumer.
+     *
+     * @return the number of elements removed
+     */
+    int drain(@NotNull Consumer<? super E> consumer, int limit);
+
+    boolean isEmpty();
+
+    /**
+     * @return the approximate number of queued elements
+     */
+    int size();
+
+    int capacity();
+}
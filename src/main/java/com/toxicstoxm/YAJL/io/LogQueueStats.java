@@ -0,0 +1,42 @@
+package com.toxicstoxm.YAJL.io;
+
+/**
+ * Snapshot of the log file queue metrics.
+ * <p>
+ * Lines that could not be queued but were saved to the overflow file count as {@code spilled},
+ * the drop counters only contain lines that were lost.
+ * </p>
+ *
+ * @param depth number of lines currently waiting in the queue
+ * @param capacity maximum number of lines the queue can hold
+ * @param dropped lines dropped because the queue was full, if the policy is {@link OverflowPolicy#DROP}
+ * @param droppedBelowLevel lines dropped because the queue was full and they were below the drop threshold
+ * @param evicted queued lines dropped to make room for newer ones, if the policy is {@link OverflowPolicy#DROP_OLDEST}
+ * @param timedOut lines dropped because the queue stayed full for longer than the block timeout
+ * @param discarded unformatted events dropped because the log file format was switched from binary to text while they were logged
+ * @param spilled lines written to the overflow file instead of being dropped
+ */
+public record LogQueueStats(
+        int depth,
+        int capacity,
+        long dropped,
+        long droppedBelowLevel,
+        long evicted,
+        long timedOut,
+        long discarded,
+        long spilled
+) {
+    /**
+     * @return the number of lines lost for any reason
+     */
+    public long totalDropped() {
+        return dropped + droppedBelowLevel + evicted + timedOut + discarded;
+    }
+
+    /**
+     * @return the share of the queue capacity currently in use, from {@code 0} to {@code 1}
+     */
+    public double utilization() {
+        return capacity == 0 ? 0 : (double) depth / capacity;
+    }
+}
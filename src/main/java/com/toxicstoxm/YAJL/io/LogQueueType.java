@@ -0,0 +1,32 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Available {@link LogQueue} implementations.
+ */
+public enum LogQueueType {
+    /**
+     * {@link java.util.concurrent.LinkedBlockingQueue} based. Allocates a node per element and locks on every offer.
+     */
+    BLOCKING {
+        @Override
+        public <E> @NotNull LogQueue<E> create(int capacity) {
+            return new BlockingLogQueue<>(capacity);
+        }
+    },
+
+    /**
+     * Lock-free array based queue for multiple producers and a single consumer. Does not allocate per element.
+     */
+    MPSC {
+        @Override
+        public <E> @NotNull LogQueue<E> create(int capacity) {
+            return new MpscArrayLogQueue<>(capacity);
+        }
+    };
+
+    @Contract("_ -> new")
+    public abstract <E> @NotNull LogQueue<E> create(int capacity);
+}
@@ -0,0 +1,182 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Appends bytes to a file through a memory mapping instead of {@code write} calls.
+ * <p>
+ * The file is mapped in fixed-size chunks. Mapping the next chunk extends the file up front,
+ * writes are plain memory copies and {@link #flush()} does not need a syscall.
+ * {@link #close()} truncates the file to the number of bytes actually written.
+ * </p>
+ * <p>
+ * <b>Crash safety:</b>
+ * <ul>
+ *   <li>If the process dies (crash, {@code kill -9}, {@link Runtime#halt(int)}), every byte copied into the mapping
+ *   is kept, because the written pages belong to the operating system's page cache, not to the process.
+ *   The file is not truncated though: it ends with the unused, zero-filled rest of the current chunk.
+ *   {@link #trimTrailingZeros(Path)} removes it. {@link LogFileManager} marks the text log files it maps
+ *   and recovers the marked files of previous sessions in the background after startup.</li>
+ *   <li>If the operating system crashes or loses power, pages that were not written back to disk yet are lost,
+ *   just like data in the page cache after a regular {@code write}.</li>
+ *   <li>Some platforms (e.g. Windows) refuse to truncate a file while it is still mapped.
+ *   The file then keeps its zero-filled tail until it is recovered.</li>
+ * </ul>
+ * </p>
+ */
+public final class MappedFileOutputStream extends OutputStream {
+    private static final int TRIM_BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final int chunkSize;
+
+    private MappedByteBuffer mapped;
+    private long mappedStart;
+    private boolean closed = false;
+
+    /**
+     * Opens the file for appending, creating it if necessary.
+     *
+     * @param file the file to append to
+     * @param chunkSize number of bytes mapped (and pre-allocated) at once
+     * @throws IOException if the file can't be opened or mapped
+     */
+    public MappedFileOutputStream(@NotNull Path file, int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive, got " + chunkSize + "!");
+        }
+
+        this.chunkSize = chunkSize;
+        this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+
+        try {
+            map(channel.size());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void map(long start) throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, start, chunkSize);
+        mappedStart = start;
+    }
+
+    /**
+     * @return the number of bytes in the file that contain written data
+     */
+    public long length() {
+        return mappedStart + mapped.position();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!mapped.hasRemaining()) {
+            map(length());
+        }
+        mapped.put((byte) b);
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) throws IOException {
+        ensureOpen();
+
+        while (len > 0) {
+            if (!mapped.hasRemaining()) {
+                map(length());
+            }
+
+            int count = Math.min(len, mapped.remaining());
+            mapped.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Does nothing. Written bytes are visible to readers of the file as soon as they are copied into the mapping.
+     */
+    @Override
+    public void flush() {}
+
+    /**
+     * Writes the mapped pages back to the storage device.
+     */
+    public void force() throws IOException {
+        ensureOpen();
+        mapped.force();
+    }
+
+    /**
+     * Truncates the file to the written length and closes it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+
+        long length = length();
+        mapped = null;
+
+        try (channel) {
+            channel.truncate(length);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Removes the zero-filled tail a memory-mapped writer leaves behind if it wasn't closed properly.
+     * Log lines always end with a line separator, so trailing zero bytes are never part of the written data.
+     *
+     * @param file the file to recover
+     * @return the number of bytes removed
+     * @throws IOException if the file can't be read or truncated
+     */
+    public static long trimTrailingZeros(@NotNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            long size = channel.size();
+            long end = size;
+
+            ByteBuffer block = ByteBuffer.allocate(TRIM_BLOCK_SIZE);
+
+            scan:
+            while (end > 0) {
+                int length = (int) Math.min(TRIM_BLOCK_SIZE, end);
+                long start = end - length;
+
+                block.clear().limit(length);
+                while (block.hasRemaining()) {
+                    if (channel.read(block, start + block.position()) < 0) break;
+                }
+
+                for (int i = block.position() - 1; i >= 0; i--) {
+                    if (block.get(i) != 0) {
+                        end = start + i + 1;
+                        break scan;
+                    }
+                }
+                end = start;
+            }
+
+            if (end < size) {
+                channel.truncate(end);
+            }
+            return size - end;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free, bounded {@link LogQueue} for multiple producers and a single consumer.
+ * <p>
+ * Producers claim a slot by incrementing the producer index with a CAS and then store their element into it.
+ * The consumer reads slots in order, clears them and advances the consumer index, which frees the slot for producers again.
+ * A claimed slot that is still empty belongs to a producer that has not stored its element yet; the consumer stops there
+ * and continues with the next drain.
+ * </p>
+ */
+public final class MpscArrayLogQueue<E> implements LogQueue<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * @param capacity minimum capacity, rounded up to the next power of two
+     */
+    public MpscArrayLogQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got " + capacity + "!");
+        }
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(@NotNull E element) {
+        long index;
+
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= buffer.length()) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        buffer.lazySet((int) index & mask, element);
+        return true;
+    }
+
+    @Override
+    public int drain(@NotNull Consumer<? super E> consumer, int limit) {
+        long index = consumerIndex.get();
+        int count = 0;
+
+        while (count < limit) {
+            int offset = (int) index & mask;
+            E element = buffer.get(offset);
+            if (element == null) break;
+
+            buffer.lazySet(offset, null);
+            consumerIndex.lazySet(++index);
+
+            consumer.accept(element);
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return consumerIndex.get() >= producerIndex.get();
+    }
+
+    @Override
+    public int size() {
+        long size = producerIndex.get() - consumerIndex.get();
+        return (int) Math.max(0, Math.min(size, buffer.length()));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length();
+    }
+}
@@ -0,0 +1,28 @@
+package com.toxicstoxm.YAJL.io;
+
+/**
+ * Defines what happens to a log event if the buffer of an asynchronous writer is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * The logging thread waits until space is available.
+     */
+    BLOCK,
+
+    /**
+     * The event is dropped.
+     */
+    DROP,
+
+    /**
+     * Events below the configured drop threshold are dropped, all others wait until space is available.
+     */
+    DROP_BELOW_LEVEL,
+
+    /**
+     * The oldest waiting events are dropped to make room for the new one.
+     * Supported by the log file queue, where the writer thread evicts them on request.
+     * {@link AsyncAppender}s reject it, the asynchronous console output falls back to {@link #DROP} with a warning.
+     */
+    DROP_OLDEST
+}
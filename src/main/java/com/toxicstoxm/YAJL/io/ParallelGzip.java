@@ -0,0 +1,156 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Gzip compression for log files, optionally spread across the threads of a {@link ForkJoinPool}.
+ * <p>
+ * Large files are split into fixed-size blocks that are compressed independently, each into a complete gzip member
+ * (like {@code pigz --independent}). Concatenated members are a valid gzip file that any gzip reader,
+ * including {@link java.util.zip.GZIPInputStream}, decompresses back into the original content.
+ * Only a bounded window of blocks is in memory at once, so files of any size are streamed.
+ * </p>
+ * <p>
+ * Gzip is deliberately the only codec. It is the only one the JDK ships, so YAJL needs no native or third-party
+ * compression library, and rotated files stay readable with standard tools ({@code zcat}, {@code less}, log shippers).
+ * The {@code .gz} extension is also what {@link LogFileManager} uses to tell compressed files apart when naming
+ * new files, recovering interrupted compression and enforcing the file limit, and what {@link BinaryLogDecoder} detects.
+ * Only the deflate level is configurable.
+ * </p>
+ */
+public final class ParallelGzip {
+    /**
+     * Size of the independently compressed blocks.
+     */
+    public static final int BLOCK_SIZE = 1024 * 1024;
+
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private ParallelGzip() {}
+
+    /**
+     * Compresses {@code source} into {@code target}.
+     *
+     * @param source the file to compress
+     * @param target the gzip file to create, replaced if it exists
+     * @param level deflate level, {@code 0} (no compression) to {@code 9} (best compression)
+     * @param parallelThreshold files of at least this many bytes are compressed in parallel
+     * @param pool the pool compressing the blocks of large files
+     * @param progress receives the number of source bytes processed, block by block
+     * @return the size of the compressed file
+     * @throws IOException if reading or writing fails
+     */
+    public static long compress(@NotNull Path source,
+                                @NotNull Path target,
+                                int level,
+                                long parallelThreshold,
+                                @NotNull ForkJoinPool pool,
+                                @NotNull LongConsumer progress) throws IOException {
+        long size = Files.size(source);
+
+        try (OutputStream out = Files.newOutputStream(target)) {
+            if (size >= parallelThreshold && size > BLOCK_SIZE && pool.getParallelism() > 1) {
+                compressParallel(source, size, out, level, pool, progress);
+            } else {
+                compressSerial(source, out, level, progress);
+            }
+        }
+
+        return Files.size(target);
+    }
+
+    private static void compressSerial(@NotNull Path source, @NotNull OutputStream out, int level, @NotNull LongConsumer progress) throws IOException {
+        try (InputStream in = Files.newInputStream(source);
+             GZIPOutputStream gzip = newGzipStream(out, level)) {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                gzip.write(buffer, 0, read);
+                progress.accept(read);
+            }
+        }
+    }
+
+    private static void compressParallel(@NotNull Path source,
+                                         long size,
+                                         @NotNull OutputStream out,
+                                         int level,
+                                         @NotNull ForkJoinPool pool,
+                                         @NotNull LongConsumer progress) throws IOException {
+        int window = pool.getParallelism() * 2;
+
+        try (FileChannel channel = FileChannel.open(source, READ)) {
+            List<ForkJoinTask<byte[]>> tasks = new ArrayList<>(window);
+            int[] lengths = new int[window];
+
+            for (long position = 0; position < size; ) {
+                tasks.clear();
+
+                for (int i = 0; i < window && position < size; i++) {
+                    final long start = position;
+                    final int length = (int) Math.min(BLOCK_SIZE, size - position);
+                    tasks.add(pool.submit(() -> compressBlock(channel, start, length, level)));
+                    lengths[i] = length;
+                    position += length;
+                }
+
+                // Members have to be written in order, blocks further back keep compressing meanwhile
+                for (int i = 0; i < tasks.size(); i++) {
+                    out.write(join(tasks.get(i)));
+                    progress.accept(lengths[i]);
+                }
+            }
+        }
+    }
+
+    private static byte @NotNull [] join(@NotNull ForkJoinTask<byte[]> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static byte @NotNull [] compressBlock(@NotNull FileChannel channel, long start, int length, int level) {
+        try {
+            ByteBuffer block = ByteBuffer.allocate(length);
+            while (block.hasRemaining()) {
+                if (channel.read(block, start + block.position()) < 0) break;
+            }
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4);
+            try (GZIPOutputStream gzip = newGzipStream(compressed, level)) {
+                gzip.write(block.array(), 0, block.position());
+            }
+            return compressed.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static @NotNull GZIPOutputStream newGzipStream(@NotNull OutputStream out, int level) throws IOException {
+        return new GZIPOutputStream(out, STREAM_BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
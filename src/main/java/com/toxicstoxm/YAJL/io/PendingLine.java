@@ -0,0 +1,80 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import com.toxicstoxm.YAJL.util.Utf8Buffer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A line waiting in the queue of the {@link LogFileManager}.
+ * <p>
+ * Lines are taken from a {@link PendingLinePool} and handed back by the writer thread once they are written,
+ * so their buffers are reused for later lines. Lines with a {@link #waiter} are never handed back,
+ * the waiting thread may still look at them after the writer is done.
+ * </p>
+ */
+final class PendingLine {
+    /**
+     * Level used for lines written without a level. Never triggers a force.
+     */
+    static final int NO_LEVEL = Integer.MIN_VALUE;
+
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    /**
+     * The encoded line, including the line separator.
+     */
+    final Utf8Buffer bytes = new Utf8Buffer(256);
+    int level;
+
+    /**
+     * {@link System#nanoTime()} when the line was queued, {@code 0} unless its writer lag is measured.
+     */
+    long queuedAt;
+
+    /**
+     * The thread waiting until this line is durable, {@code null} if nobody waits.
+     */
+    @Nullable Thread waiter;
+    private volatile boolean completed;
+
+    /**
+     * Prepares this line for reuse. The previous content is discarded.
+     */
+    @Contract("_, _ -> this")
+    @NotNull PendingLine set(int level, @Nullable Thread waiter) {
+        bytes.reset(MAX_RETAINED_CAPACITY);
+        this.level = level;
+        this.waiter = waiter;
+        this.completed = false;
+        this.queuedAt = LogMetrics.sample() ? System.nanoTime() : 0;
+        return this;
+    }
+
+    /**
+     * Wakes up the waiting thread. Called by the writer thread once the line was forced, or will never be.
+     */
+    void complete() {
+        completed = true;
+        LockSupport.unpark(waiter);
+    }
+
+    /**
+     * Parks the waiting thread until the line is completed or the timeout elapsed.
+     *
+     * @return {@code true} if the line was completed in time
+     */
+    boolean await(long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        while (!completed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+}
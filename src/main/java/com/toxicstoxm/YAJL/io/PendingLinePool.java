@@ -0,0 +1,92 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, bounded pool of reusable {@link PendingLine}s.
+ * <p>
+ * Logging threads take lines from the pool, the writer thread of the {@link LogFileManager} hands them back once they are written.
+ * Both sides may run on many threads, so every slot carries a sequence telling whether it can be filled or emptied in the current lap.
+ * A thread claims a slot by advancing the take or return index with a CAS, which hands out every slot exactly once per lap.
+ * </p>
+ * <p>
+ * The pool starts empty. Lines are created while it is empty and dropped while it is full,
+ * so once it holds as many lines as are in flight at once, queueing a line doesn't allocate.
+ * </p>
+ */
+final class PendingLinePool {
+    private final PendingLine[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong takeIndex = new AtomicLong();
+    private final AtomicLong returnIndex = new AtomicLong();
+
+    /**
+     * @param capacity minimum number of pooled lines, rounded up to the next power of two
+     */
+    PendingLinePool(int capacity) {
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new PendingLine[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return a pooled line, or a new one if the pool is empty
+     */
+    @NotNull PendingLine acquire() {
+        long index = takeIndex.get();
+
+        while (true) {
+            int offset = (int) index & mask;
+            long available = sequences.get(offset) - (index + 1);
+
+            if (available < 0) {
+                // not returned yet in this lap
+                return new PendingLine();
+            }
+
+            if (available == 0 && takeIndex.compareAndSet(index, index + 1)) {
+                PendingLine line = slots[offset];
+                slots[offset] = null;
+                sequences.set(offset, index + slots.length);
+                return line;
+            }
+
+            index = takeIndex.get();
+        }
+    }
+
+    /**
+     * Hands a line back for reuse. The line is dropped if the pool is full.
+     */
+    void release(@NotNull PendingLine line) {
+        long index = returnIndex.get();
+
+        while (true) {
+            int offset = (int) index & mask;
+            long free = sequences.get(offset) - index;
+
+            if (free < 0) {
+                // not taken yet in this lap
+                return;
+            }
+
+            if (free == 0 && returnIndex.compareAndSet(index, index + 1)) {
+                slots[offset] = line;
+                sequences.set(offset, index + 1);
+                return;
+            }
+
+            index = returnIndex.get();
+        }
+    }
+}
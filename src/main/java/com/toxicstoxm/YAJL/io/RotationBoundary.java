@@ -0,0 +1,59 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Wall-clock boundaries at which the current log file is rotated, in the system default time-zone.
+ */
+public enum RotationBoundary {
+    /**
+     * Log files are not rotated at wall-clock boundaries.
+     */
+    NONE {
+        @Override
+        public long next(long nowMillis, @NotNull ZoneId zone) {
+            return Long.MAX_VALUE;
+        }
+    },
+
+    /**
+     * Log files are rotated at the start of every hour.
+     */
+    HOURLY {
+        @Override
+        public long next(long nowMillis, @NotNull ZoneId zone) {
+            return ZonedDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone)
+                    .truncatedTo(ChronoUnit.HOURS)
+                    .plusHours(1)
+                    .toInstant()
+                    .toEpochMilli();
+        }
+    },
+
+    /**
+     * Log files are rotated at midnight.
+     */
+    DAILY {
+        @Override
+        public long next(long nowMillis, @NotNull ZoneId zone) {
+            return ZonedDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), zone)
+                    .toLocalDate()
+                    .plusDays(1)
+                    .atStartOfDay(zone)
+                    .toInstant()
+                    .toEpochMilli();
+        }
+    };
+
+    /**
+     * @param nowMillis the current time in milliseconds since the epoch
+     * @param zone the time-zone the boundaries are defined in
+     * @return the next boundary after {@code nowMillis}, or {@link Long#MAX_VALUE} if there is none
+     */
+    public abstract long next(long nowMillis, @NotNull ZoneId zone);
+}
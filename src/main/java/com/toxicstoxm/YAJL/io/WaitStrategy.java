@@ -0,0 +1,50 @@
+package com.toxicstoxm.YAJL.io;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Defines how background writers wait for new events and how blocked producers wait for free space.
+ */
+public enum WaitStrategy {
+    /**
+     * Busy spins. Lowest latency, but keeps a CPU core busy while waiting.
+     */
+    SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * Yields to other threads between attempts. Low latency with less CPU pressure than {@link #SPIN}.
+     */
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            Thread.yield();
+        }
+    },
+
+    /**
+     * Parks the thread with an exponential backoff, capped at one millisecond.
+     * Background writers that stay idle for longer sleep until new events wake them up, see {@link WakeupSignal}.
+     * Cheapest while idle.
+     */
+    PARK {
+        @Override
+        public void idle(int attempt) {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, MIN_PARK_NANOS << Math.min(attempt, 7)));
+        }
+    };
+
+    private static final long MIN_PARK_NANOS = 10_000;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    /**
+     * Waits once.
+     *
+     * @param attempt number of consecutive unsuccessful attempts so far, starting at zero
+     */
+    public abstract void idle(int attempt);
+}
@@ -0,0 +1,64 @@
+package com.toxicstoxm.YAJL.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lets the single consumer thread of a queue sleep while it has nothing to do, until a producer wakes it up.
+ * <p>
+ * After a short backoff, the consumer announces that it is about to park and checks for work one last time.
+ * Producers check for a parked consumer after they queued their element.
+ * Both sides use volatile accesses, so either the consumer sees the new element or the producer sees the parked consumer.
+ * While the consumer is busy, signalling costs producers a single volatile read.
+ * </p>
+ */
+public final class WakeupSignal {
+    /**
+     * Longest time an idle consumer sleeps without being signalled.
+     */
+    public static final long MAX_IDLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * Number of idle attempts that back off with {@link WaitStrategy#PARK} before the consumer waits for a signal,
+     * so producers don't need to wake it up during short pauses.
+     */
+    private static final int BACKOFF_ATTEMPTS = 8;
+
+    private volatile Thread parked;
+
+    /**
+     * Waits once. Called by the consumer if it found nothing to do. May return early or spuriously.
+     *
+     * @param attempt number of consecutive idle attempts so far, starting at zero
+     * @param hasWork checked after the consumer announced itself as parked, the consumer doesn't park if it returns {@code true}
+     * @param timeoutNanos longest time to park without being signalled
+     */
+    public void idle(int attempt, @NotNull BooleanSupplier hasWork, long timeoutNanos) {
+        if (attempt < BACKOFF_ATTEMPTS) {
+            WaitStrategy.PARK.idle(attempt);
+            return;
+        }
+
+        parked = Thread.currentThread();
+        try {
+            if (!hasWork.getAsBoolean()) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            parked = null;
+        }
+    }
+
+    /**
+     * Wakes up the consumer if it is parked. Called by producers after they queued an element.
+     */
+    public void signal() {
+        Thread thread = parked;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
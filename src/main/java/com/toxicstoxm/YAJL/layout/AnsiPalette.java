@@ -0,0 +1,103 @@
+package com.toxicstoxm.YAJL.layout;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.util.ColorDepth;
+import com.toxicstoxm.YAJL.util.tools.ColorTools;
+import org.jetbrains.annotations.NotNull;
+
+import java.awt.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed ANSI escape sequences for one {@link ColorDepth}.
+ * <p>
+ * The sequences of the default log levels are computed when the palette is created,
+ * others the first time they are rendered, so color placeholders only look up a finished string per event.
+ * Prefix colors and their blends with level colors are cached up to a fixed number of entries,
+ * beyond that they are computed per event instead of growing the cache without bounds.
+ * </p>
+ */
+public final class AnsiPalette {
+    private static final int MAX_CACHED_COLORS = 1024;
+
+    private static final Map<ColorDepth, AnsiPalette> PALETTES = new EnumMap<>(ColorDepth.class);
+
+    static {
+        for (ColorDepth depth : ColorDepth.values()) {
+            PALETTES.put(depth, new AnsiPalette(depth));
+        }
+    }
+
+    private final ColorDepth depth;
+    private final ConcurrentHashMap<Color, String> colors = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Color, ConcurrentHashMap<Color, String>> blends = new ConcurrentHashMap<>();
+
+    private AnsiPalette(@NotNull ColorDepth depth) {
+        this.depth = depth;
+
+        for (LogLevels level : LogLevels.values()) {
+            color(level.getColor());
+        }
+    }
+
+    /**
+     * @return the shared palette of the color depth
+     */
+    public static @NotNull AnsiPalette of(@NotNull ColorDepth depth) {
+        return PALETTES.get(depth);
+    }
+
+    public @NotNull ColorDepth depth() {
+        return depth;
+    }
+
+    /**
+     * @return the escape sequence of the level color
+     */
+    public @NotNull String level(@NotNull LogLevel level) {
+        return color(level.getColor());
+    }
+
+    /**
+     * @return the escape sequence of the color, downsampled to the depth of this palette
+     */
+    public @NotNull String color(Color color) {
+        if (color == null) {
+            color = Color.WHITE;
+        }
+
+        String ansi = colors.get(color);
+        if (ansi != null) return ansi;
+
+        ansi = ColorTools.toAnsi(color, depth);
+        if (colors.size() < MAX_CACHED_COLORS) {
+            colors.putIfAbsent(color, ansi);
+        }
+        return ansi;
+    }
+
+    /**
+     * @return the escape sequence of the prefix color blended with the level color
+     */
+    public @NotNull String blend(@NotNull Color prefixColor, @NotNull LogLevel level) {
+        Color levelColor = level.getColor() == null ? Color.WHITE : level.getColor();
+
+        ConcurrentHashMap<Color, String> byLevel = blends.get(prefixColor);
+        if (byLevel == null) {
+            if (blends.size() >= MAX_CACHED_COLORS) {
+                return ColorTools.toAnsi(ColorTools.mixColors(prefixColor, levelColor), depth);
+            }
+            byLevel = blends.computeIfAbsent(prefixColor, _ -> new ConcurrentHashMap<>());
+        }
+
+        String ansi = byLevel.get(levelColor);
+        if (ansi == null) {
+            ansi = ColorTools.toAnsi(ColorTools.mixColors(prefixColor, levelColor), depth);
+            byLevel.putIfAbsent(levelColor, ansi);
+        }
+        return ansi;
+    }
+}
@@ -10,10 +10,12 @@ public final class CompiledLayout {
     @Getter
     private final String baseLayout;
     private final ParsedLayout parsedLayout;
+    private final boolean showsCaller;
 
     public CompiledLayout(String baseLayout, ParsedLayout parsedLayout) {
         this.baseLayout = baseLayout;
         this.parsedLayout = parsedLayout;
+        this.showsCaller = parsedLayout.tokens().stream().anyMatch(LayoutToken::usesCaller);
     }
 
     public @Unmodifiable @NotNull List<LayoutToken> getTokens() {
@@ -23,4 +25,11 @@ public final class CompiledLayout {
     public boolean isColored() {
         return parsedLayout.color();
     }
+
+    /**
+     * @return whether the layout may show the caller, which then has to be looked up on the logging thread
+     */
+    public boolean showsCaller() {
+        return showsCaller;
+    }
 }
@@ -0,0 +1,126 @@
+package com.toxicstoxm.YAJL.layout;
+
+import com.toxicstoxm.YAJL.core.LogEnvironment;
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.RenderContext;
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.TimestampCache;
+import com.toxicstoxm.YAJL.util.tools.StringTools;
+import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the whole event as a single JSON object, for JSON Lines output.
+ * <p>
+ * Used through the {@code {json}} placeholder. Its arguments select the members and their order,
+ * from {@code time}, {@code level}, {@code prefix}, {@code message}, {@code trace} and {@code fields}.
+ * Structured fields are written as top-level members after the standard ones.
+ * The optional {@code format} argument sets the timestamp pattern, ISO-8601 with milliseconds by default.
+ * </p>
+ * <p>
+ * Members are compiled into writers once, so rendering streams escaped text straight into the output
+ * without reflection or intermediate maps.
+ * </p>
+ */
+public final class JsonLayoutToken implements LayoutToken {
+    private static final String[] DEFAULT_MEMBERS = {"time", "level", "prefix", "message", "fields"};
+    private static final String DEFAULT_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    private final LayoutToken[] members;
+    private final boolean usesCaller;
+
+    public JsonLayoutToken(@NotNull Map<String, String> args, @NotNull LayoutCacheKey layout) {
+        List<String> names = new ArrayList<>();
+        for (String key : args.keySet()) {
+            if (!key.equals("format")) names.add(key);
+        }
+        if (names.isEmpty()) names = List.of(DEFAULT_MEMBERS);
+
+        List<LayoutToken> compiled = new ArrayList<>(names.size());
+        for (String name : names) {
+            compiled.add(compileMember(name, args, layout));
+        }
+        this.members = compiled.toArray(LayoutToken[]::new);
+        this.usesCaller = names.contains("trace");
+    }
+
+    private static @NotNull LayoutToken compileMember(@NotNull String name, @NotNull Map<String, String> args, @NotNull LayoutCacheKey layout) {
+        return switch (name) {
+            case "time" -> {
+                TimestampCache cache = new TimestampCache(args.getOrDefault("format", DEFAULT_TIME_FORMAT));
+                ClockSource clock = layout.clockSource();
+                yield (out, env, _) -> {
+                    beginMember(out, "time").append('"');
+                    cache.appendTo(out, clock.timestamp(env.timestamp()));
+                    out.append('"');
+                };
+            }
+            case "level" -> (out, env, _) -> stringMember(out, "level", env.level().getName());
+            case "prefix" -> (out, env, _) -> stringMember(out, "prefix", env.prefix());
+            case "message" -> (out, env, _) -> stringMember(out, "message", env.messageText());
+            case "trace" -> (out, env, _) -> {
+                TraceTools.CallerInfo caller = env.callerInfo().get();
+                if (caller == null) return;
+
+                stringMember(out, "class", caller.className());
+                stringMember(out, "method", caller.methodName());
+                beginMember(out, "line").append(caller.lineNumber());
+            };
+            case "fields" -> (out, env, _) -> {
+                LogFields fields = env.fields();
+                if (fields == null) return;
+
+                for (int i = 0; i < fields.size(); i++) {
+                    beginMember(out, fields.key(i));
+                    fields.appendJsonValue(out, i);
+                }
+            };
+            default -> {
+                LoggerManager.internalLog("Unknown JSON layout member '" + name + "', skipping it");
+                yield (_, _, _) -> {};
+            }
+        };
+    }
+
+    /**
+     * Appends the separator, unless this is the first member, and the quoted key.
+     */
+    private static @NotNull StringBuilder beginMember(@NotNull StringBuilder out, @NotNull String key) {
+        if (out.charAt(out.length() - 1) != '{') {
+            out.append(',');
+        }
+        out.append('"');
+        StringTools.appendJsonEscaped(out, key);
+        return out.append("\":");
+    }
+
+    private static void stringMember(@NotNull StringBuilder out, @NotNull String key, CharSequence value) {
+        beginMember(out, key);
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        StringTools.appendJsonEscaped(out, value);
+        out.append('"');
+    }
+
+    @Override
+    public boolean usesCaller() {
+        return usesCaller;
+    }
+
+    @Override
+    public void append(@NotNull StringBuilder out, LogEnvironment env, RenderContext context) {
+        out.append('{');
+        for (LayoutToken member : members) {
+            member.append(out, env, context);
+        }
+        out.append('}');
+    }
+}
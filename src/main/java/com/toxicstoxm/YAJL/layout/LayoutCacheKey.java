@@ -1,5 +1,7 @@
 package com.toxicstoxm.YAJL.layout;
 
-public
-record LayoutCacheKey(String layout, boolean colorEnabled) {}
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.ColorDepth;
 
+public
+record LayoutCacheKey(String layout, boolean colorEnabled, ClockSource clockSource, ColorDepth colorDepth) {}
@@ -9,5 +9,22 @@ public interface LayoutToken {
             LogEnvironment logEnv,
             RenderContext context
     );
+
+    /**
+     * Whether this token only produces color escapes.
+     * Such tokens render nothing for plain outputs, so a single rendering pass can skip them for those outputs
+     * and reuse the output of every other token.
+     */
+    default boolean isColorSegment() {
+        return false;
+    }
+
+    /**
+     * Whether this token shows the caller. The caller can only be looked up on the logging thread,
+     * so events rendered elsewhere have to capture it first.
+     */
+    default boolean usesCaller() {
+        return false;
+    }
 }
 
@@ -0,0 +1,20 @@
+package com.toxicstoxm.YAJL.layout;
+
+import java.util.Map;
+
+/**
+ * Compiles a specific placeholder into a pre-configured {@link LayoutToken}.
+ * Everything that only depends on the layout (formatters, colors, argument parsing) is resolved once,
+ * so the returned token only has to do the work that really depends on the log event.
+ */
+@FunctionalInterface
+public interface PlaceholderCompiler {
+    /**
+     * Binds the placeholder to its static arguments.
+     *
+     * @param staticArgs a map of additional placeholder properties
+     * @param layout the layout settings the placeholder is compiled for
+     * @return the token rendering the placeholder for each log event
+     */
+    LayoutToken compile(Map<String, String> staticArgs, LayoutCacheKey layout);
+}
@@ -1,107 +1,160 @@
 package com.toxicstoxm.YAJL.layout;
 
 import com.toxicstoxm.YAJL.core.LogEnvironment;
+import com.toxicstoxm.YAJL.core.LogFields;
 import com.toxicstoxm.YAJL.core.LoggerManager;
 import com.toxicstoxm.YAJL.core.RenderContext;
-import com.toxicstoxm.YAJL.util.tools.ColorTools;
+import com.toxicstoxm.YAJL.util.ClockSource;
+import com.toxicstoxm.YAJL.util.TimestampCache;
 import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
 
 import java.awt.*;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
 
 public final class PlaceholderToken implements LayoutToken {
+    private static final LayoutToken EMPTY = (_, _, _) -> {};
+
     private final String key;
-    private final Map<String, String> staticArgs;
+    private final LayoutToken renderer;
+    private final boolean colorSegment;
+    private final boolean usesCaller;
 
     public PlaceholderToken(String key, Map<String, String> staticArgs) {
+        this(key, staticArgs, new LayoutCacheKey(
+                "{" + key + "}",
+                LoggerManager.getSettings().isEnableColorCoding(),
+                LoggerManager.getSettings().getClockSource(),
+                LoggerManager.getSettings().getColorDepth()
+        ));
+    }
+
+    /**
+     * Creates a placeholder token and binds it to its compiled renderer.
+     * Unknown placeholders are kept as literal text.
+     *
+     * @param key the placeholder key, e.g. {@code time}
+     * @param staticArgs the placeholder arguments from the layout
+     * @param layout the layout settings the placeholder is compiled for
+     */
+    public PlaceholderToken(String key, Map<String, String> staticArgs, LayoutCacheKey layout) {
         this.key = key;
-        this.staticArgs = staticArgs;
+
+        PlaceholderCompiler compiler = placeholderCompilers.get(key);
+        if (compiler == null) {
+            String literal = "{" + key + "}";
+            this.renderer = (out, _, _) -> out.append(literal);
+            this.colorSegment = false;
+            this.usesCaller = false;
+        } else {
+            this.renderer = compiler.compile(staticArgs, layout);
+            this.colorSegment = key.toLowerCase().contains("color");
+            this.usesCaller = key.equals("trace") || renderer.usesCaller();
+        }
+    }
+
+    @Override
+    public boolean isColorSegment() {
+        return colorSegment;
+    }
+
+    @Override
+    public boolean usesCaller() {
+        return usesCaller;
     }
 
     @Override
     public void append(StringBuilder out, LogEnvironment env, RenderContext context
     ) {
-        PlaceholderHandler handler = placeholderHandlers.get(key);
-
-        if (handler == null) {
-            out.append('{').append(key).append('}');
-            return;
-        }
+        renderer.append(out, env, context);
+    }
 
-        out.append(handler.process(env, staticArgs, context));
+    @Override
+    public String toString() {
+        return "PlaceholderToken [Key='" + key + "']";
     }
 
     /**
-     * A map of registered placeholder handlers used to associate placeholder strings with their corresponding replacement values.
+     * A map of registered placeholder compilers used to associate placeholder strings with their corresponding renderers.
      * <p>
      * This map is used to manage dynamic placeholders in log messages, where each placeholder string (e.g., "time", "level") is
-     * mapped to a {@link PlaceholderHandler} that defines how to generate or retrieve the replacement for the placeholder.
+     * mapped to a {@link PlaceholderCompiler} that binds the placeholder to its static arguments when the layout is compiled.
      * </p>
      * <p>
-     * The placeholder handlers are responsible for processing the placeholders and returning the appropriate value based on
+     * The compiled renderers are responsible for appending the appropriate value based on
      * the current context (e.g., time, log level, stack trace).
      * </p>
      */
-    private static final Map<String, PlaceholderHandler> placeholderHandlers = new HashMap<>();
+    private static final Map<String, PlaceholderCompiler> placeholderCompilers = new HashMap<>();
+
+    /**
+     * Compiles a color placeholder. If color coding is disabled for the layout, the placeholder never renders anything.
+     */
+    private static @NotNull LayoutToken colorPlaceholder(@NotNull LayoutCacheKey layout, @NotNull LayoutToken colored) {
+        return layout.colorEnabled() ? colorOnly(colored) : EMPTY;
+    }
+
+    private static @NotNull LayoutToken colorOnly(@NotNull LayoutToken colored) {
+        return (out, env, context) -> {
+            if (context.color()) colored.append(out, env, context);
+        };
+    }
 
     static {
-        // Initialize placeholder handlers
+        // Initialize placeholder compilers
 
         // ==========================
         // Time Placeholder
         // ==========================
         // Retrieves the current time formatted according to the given format.
         // Default format: "HH:mm:ss"
-        placeholderHandlers.put("time", (_, args, _) -> {
-            String format = args.getOrDefault("format", "HH:mm:ss");
-            return LocalTime.now().format(DateTimeFormatter.ofPattern(format));
+        // The text of the current second is cached, only sub-second digits are patched per event.
+        placeholderCompilers.put("time", (args, layout) -> {
+            TimestampCache cache = new TimestampCache(args.getOrDefault("format", "HH:mm:ss"));
+            ClockSource clock = layout.clockSource();
+            return (out, env, _) -> cache.appendTo(out, clock.timestamp(env.timestamp()));
         });
 
         // ==========================
         // Log Level Placeholder
         // ==========================
         // Retrieves the log level name from arguments or falls back to the default log level.
-        placeholderHandlers.put("level", (env, _, _) -> env.level().getName());
+        placeholderCompilers.put("level", (_, _) -> (out, env, _) -> out.append(env.level().getName()));
 
         // ==========================
         // Log Level Color Placeholder
         // ==========================
         // Returns ANSI color representation of the log level color if color coding is enabled.
-        placeholderHandlers.put("levelColor", (env, _, context) -> {
-            if (LoggerManager.getSettings().isEnableColorCoding() && context.color()) {
-                return ColorTools.toAnsi(env.level().getColor());
-            } else {
-                return "";
-            }
+        placeholderCompilers.put("levelColor", (_, layout) -> {
+            AnsiPalette palette = AnsiPalette.of(layout.colorDepth());
+            return colorPlaceholder(layout, (out, env, _) -> out.append(palette.level(env.level())));
         });
 
         // ==========================
         // Log Message Placeholder
         // ==========================
         // Retrieves the actual log message or defaults to an empty string.
-        placeholderHandlers.put("message", (env, _, _) -> env.message());
+        placeholderCompilers.put("message", (_, _) -> (out, env, _) -> out.append(env.messageText()));
 
         // ==========================
         // Logger Prefix (Log Area) Placeholder
         // ==========================
         // Retrieves the logger prefix or defaults to "YAJL".
-        placeholderHandlers.put("prefix", (env, _, _) -> env.prefix());
+        placeholderCompilers.put("prefix", (_, _) -> (out, env, _) -> out.append(env.prefix()));
 
         // ==========================
         // Hex Color Placeholder
         // ==========================
         // Converts a hex color code to its ANSI equivalent if color coding is enabled.
-        // Default color: White (#FFFFFF)
-        placeholderHandlers.put("color", (_, args, context) -> {
+        // The escape sequence is computed once, when the layout is compiled.
+        placeholderCompilers.put("color", (args, layout) -> {
             String color = args.get("hex");
-            if (LoggerManager.getSettings().isEnableColorCoding() && color != null && context.color()) {
-                return ColorTools.toAnsi(Color.decode(color));
-            } else {
-                return "";
+            if (!layout.colorEnabled() || color == null) {
+                return EMPTY;
             }
+            String ansi = AnsiPalette.of(layout.colorDepth()).color(Color.decode(color));
+            return colorOnly((out, _, _) -> out.append(ansi));
         });
 
         // ==========================
@@ -109,54 +162,65 @@ public final class PlaceholderToken implements LayoutToken {
         // ==========================
         // Constructs a stack trace element representation based on the provided arguments.
         // Supports `class`, `method`, and `line`, or falls back to a full trace format.
-        placeholderHandlers.put("trace", (env, args, _) -> {
+        // The field order and separator are resolved once, when the layout is compiled.
+        placeholderCompilers.put("trace", (args, _) -> {
             final String separator = args.getOrDefault("separator", ":");
 
             // Remove "separator" from the ordered keys
-            java.util.List<String> fields = null;
-
+            List<String> fields = new ArrayList<>(3);
             for (String key : args.keySet()) {
                 if (!key.equals("separator")) {
-                    if (fields == null) fields = new ArrayList<>(3);
                     fields.add(key);
                 }
             }
 
             // Default order if nothing specified
-            return TraceTools.formatCallerOrdered(
-                    env.callerInfo().get(),
-                    Objects.requireNonNullElseGet(fields, () -> List.of("class", "method", "line")),
-                    separator
-            );
+            final String[] order = fields.isEmpty()
+                    ? new String[]{"class", "method", "line"}
+                    : fields.toArray(String[]::new);
+
+            return (out, env, _) -> TraceTools.appendCallerOrdered(out, env.callerInfo().get(), order, separator);
+        });
+
+        // ==========================
+        // Structured Fields Placeholder
+        // ==========================
+        // Appends the key-value fields of structured events as "key=value", separated by spaces.
+        // Renders nothing for events without fields.
+        placeholderCompilers.put("fields", (_, _) -> (out, env, _) -> {
+            LogFields fields = env.fields();
+            if (fields == null) return;
+
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) out.append(' ');
+                out.append(fields.key(i)).append('=');
+                fields.appendValue(out, i);
+            }
         });
 
+        // ==========================
+        // JSON Placeholder
+        // ==========================
+        // Renders the whole event as one JSON object, see JsonLayoutToken.
+        // Use "{json}" as the entire layout to write JSON Lines.
+        placeholderCompilers.put("json", JsonLayoutToken::new);
+
         // ==========================
         // Logger Prefix Color Placeholder
         // ==========================
         // Generates a random ANSI color for the logger prefix if color coding is enabled.
-        placeholderHandlers.put("prefixColor", (env, _, context) -> {
-            if (LoggerManager.getSettings().isEnableColorCoding() && context.color()) {
-                return ColorTools.toAnsi(ColorTools.randomColor(env.prefix()));
-            } else {
-                return "";
-            }
+        placeholderCompilers.put("prefixColor", (_, layout) -> {
+            AnsiPalette palette = AnsiPalette.of(layout.colorDepth());
+            return colorPlaceholder(layout, (out, env, _) -> out.append(palette.color(env.prefixColor())));
         });
 
         // ==========================
         // Mixed Log Level & Logger Prefix Color Placeholder
         // ==========================
         // Mixes the log level color and logger prefix color into a blended ANSI color if color coding is enabled.
-        placeholderHandlers.put("mixLevelAndAreaColor", (env, _, context) -> {
-            if (LoggerManager.getSettings().isEnableColorCoding() && context.color()) {
-                return ColorTools.toAnsi(
-                        ColorTools.mixColors(
-                                ColorTools.randomColor(env.prefix()),
-                                env.level().getColor()
-                        )
-                );
-            } else {
-                return "";
-            }
+        placeholderCompilers.put("mixLevelAndAreaColor", (_, layout) -> {
+            AnsiPalette palette = AnsiPalette.of(layout.colorDepth());
+            return colorPlaceholder(layout, (out, env, _) -> out.append(palette.blend(env.prefixColor(), env.level())));
         });
     }
 }
@@ -0,0 +1,115 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed number of counters that are incremented on every log call and read rarely.
+ * <p>
+ * Every platform thread counts into its own slots, which only that thread writes.
+ * An increment is a plain store, not the CAS an uncontended {@link LongAdder} still pays for.
+ * The slots of terminated threads are folded into a shared total, so thread pools replacing their threads don't pile up slots.
+ * Virtual threads are usually too short-lived to get slots of their own and count into shared {@link LongAdder}s instead.
+ * </p>
+ * <p>
+ * Like {@link LongAdder#sum()}, {@link #sums()} is not an atomic snapshot, increments in flight may be missed.
+ * </p>
+ */
+final class EventCounters {
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+
+    private record Slots(@NotNull Thread owner, long @NotNull [] counts) {}
+
+    private final int size;
+    private final LongAdder[] shared;
+    private final ThreadLocal<Slots> slots = ThreadLocal.withInitial(this::register);
+
+    // Guarded by this
+    private final List<Slots> registered = new ArrayList<>();
+    private final long[] retired;
+    private long[] baseline;
+    private int sweepThreshold = MIN_SWEEP_THRESHOLD;
+
+    EventCounters(int size) {
+        this.size = size;
+        this.shared = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            shared[i] = new LongAdder();
+        }
+        this.retired = new long[size];
+        this.baseline = new long[size];
+    }
+
+    void increment(int index) {
+        if (Thread.currentThread().isVirtual()) {
+            shared[index].increment();
+            return;
+        }
+
+        long[] counts = slots.get().counts();
+        // only this thread writes its slots, the opaque store just keeps readers from seeing a torn value
+        SLOT.setOpaque(counts, index, counts[index] + 1);
+    }
+
+    /**
+     * @return the value of every counter since the last {@link #reset()}
+     */
+    synchronized long @NotNull [] sums() {
+        long[] sums = total();
+        for (int i = 0; i < size; i++) {
+            sums[i] -= baseline[i];
+        }
+        return sums;
+    }
+
+    synchronized void reset() {
+        baseline = total();
+    }
+
+    private synchronized @NotNull Slots register() {
+        if (registered.size() >= sweepThreshold) {
+            foldTerminated();
+            sweepThreshold = Math.max(MIN_SWEEP_THRESHOLD, registered.size() * 2);
+        }
+
+        Slots threadSlots = new Slots(Thread.currentThread(), new long[size]);
+        registered.add(threadSlots);
+        return threadSlots;
+    }
+
+    private long @NotNull [] total() {
+        foldTerminated();
+
+        long[] total = retired.clone();
+        for (Slots threadSlots : registered) {
+            add(total, threadSlots.counts());
+        }
+        for (int i = 0; i < size; i++) {
+            total[i] += shared[i].sum();
+        }
+        return total;
+    }
+
+    /**
+     * Moves the counts of terminated threads into the shared total. Their slots can't change anymore.
+     */
+    private void foldTerminated() {
+        registered.removeIf(threadSlots -> {
+            if (threadSlots.owner().isAlive()) return false;
+            add(retired, threadSlots.counts());
+            return true;
+        });
+    }
+
+    private void add(long @NotNull [] total, long @NotNull [] counts) {
+        for (int i = 0; i < size; i++) {
+            total[i] += (long) SLOT.getOpaque(counts, i);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.toxicstoxm.YAJL.metrics;
+
+/**
+ * Summary of a {@link LatencyHistogram}. All values are in nanoseconds.
+ *
+ * @param count number of recorded values
+ * @param mean average of the recorded values
+ * @param max highest recorded value
+ * @param p50 median
+ * @param p90 90th percentile
+ * @param p99 99th percentile
+ * @param p999 99.9th percentile
+ */
+public record HistogramSnapshot(
+        long count,
+        double mean,
+        long max,
+        long p50,
+        long p90,
+        long p99,
+        long p999
+) {}
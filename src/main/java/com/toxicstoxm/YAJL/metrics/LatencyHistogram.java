@@ -0,0 +1,123 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds, bucketed like an HDR histogram.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear sub-buckets, so recorded values keep a relative
+ * precision of 12.5% over the whole {@code long} range, using a fixed array of {@value #BUCKETS} counters.
+ * Recording a value does not allocate.
+ * </p>
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        counts.getAndIncrement(indexOf(nanos));
+        count.increment();
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the highest value that is recorded into the bucket
+     */
+    static long highestValueOf(int index) {
+        if (index >= BUCKETS - 1) return Long.MAX_VALUE;
+        return lowestValueOf(index + 1) - 1;
+    }
+
+    private static long lowestValueOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Returns the value below or at which the given share of the recorded values lies.
+     * The result is the upper bound of the bucket the percentile falls into, but never above the recorded maximum.
+     *
+     * @param percentile from {@code 0} to {@code 100}
+     */
+    public long valueAtPercentile(double percentile) {
+        return valueAtPercentile(percentile, copyCounts(), max.get());
+    }
+
+    private static long valueAtPercentile(double percentile, long @NotNull [] counts, long max) {
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    private long @NotNull [] copyCounts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * @return the current count, mean, maximum and common percentiles.
+     * Values recorded concurrently may be only partially contained.
+     */
+    public @NotNull HistogramSnapshot snapshot() {
+        long[] copy = copyCounts();
+        long n = count.sum();
+        long maximum = max.get();
+
+        return new HistogramSnapshot(
+                n,
+                n == 0 ? 0 : (double) sum.sum() / n,
+                maximum,
+                valueAtPercentile(50, copy, maximum),
+                valueAtPercentile(90, copy, maximum),
+                valueAtPercentile(99, copy, maximum),
+                valueAtPercentile(99.9, copy, maximum)
+        );
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
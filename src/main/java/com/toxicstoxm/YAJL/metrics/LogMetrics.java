@@ -0,0 +1,231 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide logging metrics.
+ * <p>
+ * Events are counted per logging thread (see {@link EventCounters}), the other counters are {@link LongAdder}s,
+ * so concurrent threads update separate cells instead of contending on one value.
+ * Durations on the logging path are only measured for a sample of the events (see {@link #sample()}),
+ * which keeps the cost of an unsampled event at one thread-local counter increment and one random number.
+ * Use {@link #snapshot()} to read all metrics at once, or {@link #registerMBean()} to expose them through JMX.
+ * </p>
+ */
+public final class LogMetrics {
+    private LogMetrics() {}
+
+    private static final String OBJECT_NAME = "com.toxicstoxm.YAJL:type=LogMetrics";
+
+    // Counters of the levels -8 to 7 are kept per thread, other levels in a map
+    private static final int LEVEL_OFFSET = 8;
+    private static final EventCounters LEVEL_COUNTERS = new EventCounters(LEVEL_OFFSET * 2);
+    private static final String[] LEVEL_NAMES = new String[LEVEL_OFFSET * 2];
+    private static final Map<String, LongAdder> OTHER_LEVEL_COUNTERS = new ConcurrentHashMap<>();
+
+    private static final LongAdder LINES_WRITTEN = new LongAdder();
+    private static final LongAdder BYTES_WRITTEN = new LongAdder();
+    private static final LongAdder EXCEPTIONS_HANDLED = new LongAdder();
+
+    private static final LatencyHistogram LOG_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram RENDER_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram WRITER_LAG = new LatencyHistogram();
+    private static final LatencyHistogram FORCE_LATENCY = new LatencyHistogram();
+    private static final LatencyHistogram COMPRESSION_TIME = new LatencyHistogram();
+    private static final LatencyHistogram EXCEPTION_HANDLING_TIME = new LatencyHistogram();
+
+    private static volatile boolean enabled = false;
+    private static volatile int sampleMask = 63;
+
+    private static ObjectName registeredName;
+
+    /**
+     * @param enabled whether metrics are recorded
+     * @param sampleRate one in this many events is timed, rounded up to the next power of two
+     */
+    public static void configure(boolean enabled, int sampleRate) {
+        LogMetrics.enabled = enabled;
+        LogMetrics.sampleMask = sampleRate <= 1 ? 0 : (Integer.highestOneBit(sampleRate - 1) << 1) - 1;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decides whether the duration of the current event should be measured.
+     *
+     * @return {@code true} for one in {@code sampleRate} calls, if metrics are enabled
+     */
+    public static boolean sample() {
+        return enabled && (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+
+    /**
+     * Counts an event that passed the level check of its logger.
+     */
+    public static void countEvent(@NotNull LogLevel level) {
+        if (!enabled) return;
+
+        int index = level.getLevel() + LEVEL_OFFSET;
+
+        if (index >= 0 && index < LEVEL_NAMES.length) {
+            LEVEL_COUNTERS.increment(index);
+            if (LEVEL_NAMES[index] == null) {
+                LEVEL_NAMES[index] = level.getName();
+            }
+        } else {
+            OTHER_LEVEL_COUNTERS.computeIfAbsent(level.getName(), _ -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records the duration of a sampled {@code log} call, from the level check to the last appender.
+     */
+    public static void recordLog(long nanos) {
+        LOG_LATENCY.record(nanos);
+    }
+
+    /**
+     * Records the time a sampled event spent rendering its layout.
+     */
+    public static void recordRender(long nanos) {
+        RENDER_LATENCY.record(nanos);
+    }
+
+    /**
+     * Counts a line written to the log file. Called by the log file writer thread.
+     */
+    public static void countWrite(int bytes) {
+        if (!enabled) return;
+        LINES_WRITTEN.increment();
+        BYTES_WRITTEN.add(bytes);
+    }
+
+    /**
+     * Records the time a sampled line waited in the log file queue before it was written.
+     */
+    public static void recordWriterLag(long nanos) {
+        WRITER_LAG.record(nanos);
+    }
+
+    /**
+     * Records the duration of forcing the log file to disk.
+     */
+    public static void recordForce(long nanos) {
+        if (enabled) FORCE_LATENCY.record(nanos);
+    }
+
+    /**
+     * Records the duration of compressing a single log file.
+     */
+    public static void recordCompression(long nanos) {
+        if (enabled) COMPRESSION_TIME.record(nanos);
+    }
+
+    /**
+     * Records an exception passed to the exception handler and the time it took to handle it.
+     */
+    public static void recordExceptionHandled(long nanos) {
+        if (!enabled) return;
+        EXCEPTIONS_HANDLED.increment();
+        EXCEPTION_HANDLING_TIME.record(nanos);
+    }
+
+    /**
+     * @return the current value of all metrics, including the log file queue and compression metrics
+     */
+    public static @NotNull MetricsSnapshot snapshot() {
+        Map<String, Long> eventsByLevel = new LinkedHashMap<>();
+        long events = 0;
+
+        long[] levelCounts = LEVEL_COUNTERS.sums();
+        for (int i = 0; i < levelCounts.length; i++) {
+            long count = levelCounts[i];
+            if (count == 0 || LEVEL_NAMES[i] == null) continue;
+            eventsByLevel.merge(LEVEL_NAMES[i], count, Long::sum);
+            events += count;
+        }
+        for (Map.Entry<String, LongAdder> entry : OTHER_LEVEL_COUNTERS.entrySet()) {
+            long count = entry.getValue().sum();
+            eventsByLevel.merge(entry.getKey(), count, Long::sum);
+            events += count;
+        }
+
+        return new MetricsSnapshot(
+                events,
+                Map.copyOf(eventsByLevel),
+                LINES_WRITTEN.sum(),
+                BYTES_WRITTEN.sum(),
+                EXCEPTIONS_HANDLED.sum(),
+                LOG_LATENCY.snapshot(),
+                RENDER_LATENCY.snapshot(),
+                WRITER_LAG.snapshot(),
+                FORCE_LATENCY.snapshot(),
+                COMPRESSION_TIME.snapshot(),
+                EXCEPTION_HANDLING_TIME.snapshot(),
+                LoggerManager.getLogFileQueueStats(),
+                LoggerManager.getCompressionStats()
+        );
+    }
+
+    /**
+     * Resets all counters and histograms recorded by this class.
+     * The log file queue and compression metrics are kept.
+     */
+    public static void reset() {
+        LEVEL_COUNTERS.reset();
+        OTHER_LEVEL_COUNTERS.clear();
+        LINES_WRITTEN.reset();
+        BYTES_WRITTEN.reset();
+        EXCEPTIONS_HANDLED.reset();
+        LOG_LATENCY.reset();
+        RENDER_LATENCY.reset();
+        WRITER_LAG.reset();
+        FORCE_LATENCY.reset();
+        COMPRESSION_TIME.reset();
+        EXCEPTION_HANDLING_TIME.reset();
+    }
+
+    /**
+     * Registers an MXBean exposing the metrics as {@value #OBJECT_NAME} at the platform MBean server.
+     * Does nothing if it is already registered.
+     */
+    public static synchronized void registerMBean() {
+        if (registeredName != null) return;
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new LogMetricsBean(), name);
+            }
+            registeredName = name;
+        } catch (JMException e) {
+            LoggerManager.internalLog("Failed to register metrics MBean", e);
+        }
+    }
+
+    public static synchronized void unregisterMBean() {
+        if (registeredName == null) return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            LoggerManager.internalLog("Failed to unregister metrics MBean", e);
+        }
+        registeredName = null;
+    }
+}
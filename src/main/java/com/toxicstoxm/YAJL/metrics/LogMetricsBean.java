@@ -0,0 +1,88 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import java.util.Map;
+
+/**
+ * Takes a fresh {@link MetricsSnapshot} for every attribute read.
+ */
+final class LogMetricsBean implements LogMetricsMXBean {
+    @Override
+    public long getEvents() {
+        return LogMetrics.snapshot().events();
+    }
+
+    @Override
+    public Map<String, Long> getEventsByLevel() {
+        return LogMetrics.snapshot().eventsByLevel();
+    }
+
+    @Override
+    public long getLinesWritten() {
+        return LogMetrics.snapshot().linesWritten();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return LogMetrics.snapshot().bytesWritten();
+    }
+
+    @Override
+    public long getExceptionsHandled() {
+        return LogMetrics.snapshot().exceptionsHandled();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return LogMetrics.snapshot().queue().depth();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return LogMetrics.snapshot().queue().capacity();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return LogMetrics.snapshot().queue().totalDropped();
+    }
+
+    @Override
+    public long getSpilledEvents() {
+        return LogMetrics.snapshot().queue().spilled();
+    }
+
+    @Override
+    public HistogramSnapshot getLogLatency() {
+        return LogMetrics.snapshot().logLatency();
+    }
+
+    @Override
+    public HistogramSnapshot getRenderLatency() {
+        return LogMetrics.snapshot().renderLatency();
+    }
+
+    @Override
+    public HistogramSnapshot getWriterLag() {
+        return LogMetrics.snapshot().writerLag();
+    }
+
+    @Override
+    public HistogramSnapshot getForceLatency() {
+        return LogMetrics.snapshot().forceLatency();
+    }
+
+    @Override
+    public HistogramSnapshot getCompressionTime() {
+        return LogMetrics.snapshot().compressionTime();
+    }
+
+    @Override
+    public HistogramSnapshot getExceptionHandlingTime() {
+        return LogMetrics.snapshot().exceptionHandlingTime();
+    }
+
+    @Override
+    public void reset() {
+        LogMetrics.reset();
+    }
+}
@@ -0,0 +1,40 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link LogMetrics}, registered by {@link LogMetrics#registerMBean()}.
+ */
+public interface LogMetricsMXBean {
+    long getEvents();
+
+    Map<String, Long> getEventsByLevel();
+
+    long getLinesWritten();
+
+    long getBytesWritten();
+
+    long getExceptionsHandled();
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    long getDroppedEvents();
+
+    long getSpilledEvents();
+
+    HistogramSnapshot getLogLatency();
+
+    HistogramSnapshot getRenderLatency();
+
+    HistogramSnapshot getWriterLag();
+
+    HistogramSnapshot getForceLatency();
+
+    HistogramSnapshot getCompressionTime();
+
+    HistogramSnapshot getExceptionHandlingTime();
+
+    void reset();
+}
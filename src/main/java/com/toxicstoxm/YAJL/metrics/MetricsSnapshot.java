@@ -0,0 +1,40 @@
+package com.toxicstoxm.YAJL.metrics;
+
+import com.toxicstoxm.YAJL.io.CompressionStats;
+import com.toxicstoxm.YAJL.io.LogQueueStats;
+
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the {@link LogMetrics}.
+ * Durations on the logging path are sampled, so their histogram counts only cover a share of all events.
+ *
+ * @param events number of events that passed the level check of their logger
+ * @param eventsByLevel the events, by level name
+ * @param linesWritten lines written to log files
+ * @param bytesWritten bytes written to log files
+ * @param exceptionsHandled exceptions passed to the exception handler
+ * @param logLatency duration of sampled {@code log} calls
+ * @param renderLatency time sampled events spent rendering their layout
+ * @param writerLag time sampled lines waited in the log file queue
+ * @param forceLatency duration of forcing log files to disk
+ * @param compressionTime duration of compressing a log file
+ * @param exceptionHandlingTime duration of handling an exception, including logging it
+ * @param queue log file queue depth and drop counters
+ * @param compression log file compression metrics
+ */
+public record MetricsSnapshot(
+        long events,
+        Map<String, Long> eventsByLevel,
+        long linesWritten,
+        long bytesWritten,
+        long exceptionsHandled,
+        HistogramSnapshot logLatency,
+        HistogramSnapshot renderLatency,
+        HistogramSnapshot writerLag,
+        HistogramSnapshot forceLatency,
+        HistogramSnapshot compressionTime,
+        HistogramSnapshot exceptionHandlingTime,
+        LogQueueStats queue,
+        CompressionStats compression
+) {}
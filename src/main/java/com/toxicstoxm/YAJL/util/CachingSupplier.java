@@ -18,4 +18,20 @@ public final class CachingSupplier<T> implements Supplier<T> {
         }
         return value;
     }
+
+    /**
+     * Forgets the cached value, so the next {@link #get()} calls the supplier again.
+     */
+    public void reset() {
+        value = null;
+        resolved = false;
+    }
+
+    /**
+     * Caches the given value without calling the supplier.
+     */
+    public void set(T value) {
+        this.value = value;
+        this.resolved = true;
+    }
 }
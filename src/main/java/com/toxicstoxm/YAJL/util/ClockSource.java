@@ -0,0 +1,75 @@
+package com.toxicstoxm.YAJL.util;
+
+import java.time.Instant;
+
+/**
+ * Defines where rendered timestamps come from.
+ * All timestamps are nanoseconds since the epoch.
+ */
+public enum ClockSource {
+    /**
+     * Reads the precise wall clock whenever a timestamp is rendered.
+     */
+    WALL_CLOCK {
+        @Override
+        public long now() {
+            return preciseNow();
+        }
+    },
+
+    /**
+     * Reads the millisecond wall clock whenever a timestamp is rendered.
+     * Cheapest source, sub-millisecond digits are always zero.
+     */
+    COARSE {
+        @Override
+        public long now() {
+            return System.currentTimeMillis() * 1_000_000L;
+        }
+    },
+
+    /**
+     * Reads the precise wall clock once, when the event is logged.
+     * Every timestamp rendered for that event uses the same value, no matter when or how often it is rendered.
+     */
+    EVENT {
+        @Override
+        public long now() {
+            return preciseNow();
+        }
+
+        @Override
+        public long eventTimestamp() {
+            return preciseNow();
+        }
+    };
+
+    /**
+     * @return the current time of this clock source
+     */
+    public abstract long now();
+
+    /**
+     * Captures the timestamp of an event at call time.
+     *
+     * @return the event timestamp, or {@code 0} if this source reads the clock when rendering instead
+     */
+    public long eventTimestamp() {
+        return 0;
+    }
+
+    /**
+     * Resolves the timestamp to render for an event.
+     *
+     * @param eventTimestamp the timestamp captured by {@link #eventTimestamp()}
+     * @return the captured timestamp if there is one, the current time otherwise
+     */
+    public long timestamp(long eventTimestamp) {
+        return eventTimestamp != 0 ? eventTimestamp : now();
+    }
+
+    private static long preciseNow() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
@@ -0,0 +1,21 @@
+package com.toxicstoxm.YAJL.util;
+
+/**
+ * Number of colors the terminal supports. Colors are converted to the closest color the terminal can show.
+ */
+public enum ColorDepth {
+    /**
+     * 24-bit RGB colors, {@code ESC[38;2;r;g;bm}.
+     */
+    TRUECOLOR,
+
+    /**
+     * The xterm 256-color palette, {@code ESC[38;5;nm}.
+     */
+    COLOR_256,
+
+    /**
+     * The 16 basic ANSI colors, {@code ESC[30m} to {@code ESC[37m} and {@code ESC[90m} to {@code ESC[97m}.
+     */
+    COLOR_16
+}
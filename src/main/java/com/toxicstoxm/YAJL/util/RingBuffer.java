@@ -0,0 +1,169 @@
+package com.toxicstoxm.YAJL.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded ring buffer with preallocated slots, for multiple producers and a single consumer.
+ * <p>
+ * Slots are created once and reused for the lifetime of the buffer, so publishing an event does not allocate.
+ * A producer claims a sequence with {@link #tryClaim()}, fills the slot returned by {@link #get(long)}
+ * and hands it to the consumer with {@link #publish(long)}.
+ * The consumer processes published slots strictly in sequence order with {@link #drain(Consumer, int)}.
+ * </p>
+ *
+ * @param <E> the slot type
+ */
+public final class RingBuffer<E> {
+    private final Object[] slots;
+    private final int mask;
+
+    /**
+     * Holds the sequence that was last published into each slot. A slot is readable once it holds the expected sequence.
+     */
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Last sequence the consumer is done with. Only written by the consumer.
+     */
+    private volatile long consumed = -1;
+
+    /**
+     * @param capacity minimum number of slots, rounded up to the next power of two
+     * @param slotFactory creates the preallocated slots
+     */
+    public RingBuffer(int capacity, @NotNull Supplier<E> slotFactory) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be positive, got " + capacity + "!");
+        }
+
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Claims the next sequence without blocking.
+     *
+     * @return the claimed sequence, or {@code -1} if the buffer is full
+     */
+    public long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            long next = current + 1;
+
+            // The slot is still occupied by the event published one lap earlier
+            if (next - slots.length > consumed) {
+                return -1;
+            }
+
+            if (claimed.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * @return the slot belonging to the given claimed sequence
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[index(sequence)];
+    }
+
+    /**
+     * Makes a claimed and filled slot visible to the consumer.
+     */
+    public void publish(long sequence) {
+        published.lazySet(index(sequence), sequence);
+    }
+
+    /**
+     * Passes up to {@code limit} published slots to the handler, in sequence order.
+     * The slots are released to producers once the handler returned for all of them.
+     * Must only be called by the single consumer.
+     *
+     * @return the number of slots handled
+     */
+    public int drain(@NotNull Consumer<? super E> handler, int limit) {
+        long next = consumed + 1;
+        int count = 0;
+
+        while (count < limit && published.get(index(next)) == next) {
+            handler.accept(get(next));
+            next++;
+            count++;
+        }
+
+        if (count > 0) {
+            consumed = next - 1;
+        }
+
+        return count;
+    }
+
+    /**
+     * Adds up to {@code limit} published slots to {@code batch}, in sequence order, without releasing them.
+     * The slots stay valid until they are handed back with {@link #release(int)}.
+     * Must only be called by the single consumer.
+     *
+     * @return the number of slots collected
+     */
+    public int collect(@NotNull Collection<? super E> batch, int limit) {
+        long next = consumed + 1;
+        int count = 0;
+
+        while (count < limit && published.get(index(next)) == next) {
+            batch.add(get(next));
+            next++;
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Releases the next {@code count} slots, previously returned by {@link #collect(Collection, int)}, to producers.
+     * Must only be called by the single consumer.
+     */
+    public void release(int count) {
+        if (count > 0) {
+            consumed = consumed + count;
+        }
+    }
+
+    /**
+     * @return {@code true} if sequences have been claimed that the consumer did not process yet
+     */
+    public boolean hasPending() {
+        return claimed.get() > consumed;
+    }
+
+    /**
+     * @return an estimate of the number of claimed but unprocessed slots
+     */
+    public int size() {
+        return (int) Math.max(0, claimed.get() - consumed);
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+}
@@ -0,0 +1,160 @@
+package com.toxicstoxm.YAJL.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Formats timestamps with a fixed pattern, reusing the formatted text of the current second.
+ * <p>
+ * Lines logged within the same second only differ in their fraction-of-second digits ({@code S}),
+ * so only those are patched into the cached text. The cache is a single immutable snapshot that is replaced
+ * when the second changes, which keeps it thread-safe without locks. Racing threads may format the same second twice,
+ * but never observe a half-updated snapshot.
+ * </p>
+ * <p>
+ * Patterns containing nano-of-second ({@code n}), nano-of-day ({@code N}) or milli-of-day ({@code A}) fields
+ * cannot be patched and are formatted for every call instead.
+ * </p>
+ */
+public final class TimestampCache {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+
+    private record Snapshot(long epochSecond, String text) {}
+
+    private final DateTimeFormatter formatter;
+
+    /**
+     * Start and width of each fraction-of-second field in the formatted text, as {@code [start, width]} pairs.
+     * {@code null} if the pattern cannot be patched.
+     */
+    private final int[] fractions;
+
+    private volatile Snapshot snapshot = new Snapshot(Long.MIN_VALUE, "");
+
+    /**
+     * Creates a cache for the given pattern, using the system default time-zone.
+     *
+     * @param pattern a {@link DateTimeFormatter} pattern
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public TimestampCache(@NotNull String pattern) {
+        this(pattern, ZoneId.systemDefault());
+    }
+
+    /**
+     * Creates a cache for the given pattern and time-zone.
+     *
+     * @param pattern a {@link DateTimeFormatter} pattern
+     * @param zone the time-zone timestamps are rendered in
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public TimestampCache(@NotNull String pattern, @NotNull ZoneId zone) {
+        this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+        this.fractions = isPatchable(pattern) ? locateFractions() : null;
+    }
+
+    /**
+     * Appends the formatted timestamp to {@code out}.
+     *
+     * @param out the builder to append to
+     * @param epochNanos the timestamp in nanoseconds since the epoch
+     */
+    public void appendTo(@NotNull StringBuilder out, long epochNanos) {
+        long epochSecond = Math.floorDiv(epochNanos, NANOS_PER_SECOND);
+        int nanoOfSecond = (int) Math.floorMod(epochNanos, NANOS_PER_SECOND);
+
+        if (fractions == null) {
+            formatter.formatTo(Instant.ofEpochSecond(epochSecond, nanoOfSecond), out);
+            return;
+        }
+
+        Snapshot current = snapshot;
+        if (current.epochSecond() != epochSecond) {
+            current = new Snapshot(epochSecond, formatter.format(Instant.ofEpochSecond(epochSecond)));
+            snapshot = current;
+        }
+
+        String text = current.text();
+        int position = 0;
+        for (int i = 0; i < fractions.length; i += 2) {
+            int start = fractions[i];
+            int width = fractions[i + 1];
+
+            out.append(text, position, start);
+            appendDigits(out, nanoOfSecond / POWERS_OF_TEN[9 - width], width);
+            position = start + width;
+        }
+        out.append(text, position, text.length());
+    }
+
+    /**
+     * @param epochNanos the timestamp in nanoseconds since the epoch
+     * @return the formatted timestamp
+     */
+    public @NotNull String format(long epochNanos) {
+        StringBuilder sb = new StringBuilder(32);
+        appendTo(sb, epochNanos);
+        return sb.toString();
+    }
+
+    private static void appendDigits(@NotNull StringBuilder out, int value, int width) {
+        for (int i = width - 1; i >= 0; i--) {
+            out.append((char) ('0' + (value / POWERS_OF_TEN[i]) % 10));
+        }
+    }
+
+    /**
+     * Checks the pattern letters, ignoring quoted literals, for fields the fraction patching cannot reproduce.
+     */
+    private static boolean isPatchable(@NotNull String pattern) {
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && (c == 'n' || c == 'N' || c == 'A')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the fraction-of-second fields by formatting the same second with the smallest and the largest fraction.
+     * Exactly the fraction digits differ between the two.
+     *
+     * @return the fraction fields, or {@code null} if they cannot be located
+     */
+    private int @Nullable [] locateFractions() {
+        String low = formatter.format(Instant.ofEpochSecond(0, 0));
+        String high = formatter.format(Instant.ofEpochSecond(0, NANOS_PER_SECOND - 1));
+
+        if (low.length() != high.length()) {
+            return null;
+        }
+
+        int[] result = new int[0];
+        int i = 0;
+        while (i < low.length()) {
+            if (low.charAt(i) == high.charAt(i)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < low.length() && low.charAt(i) != high.charAt(i)) i++;
+
+            result = Arrays.copyOf(result, result.length + 2);
+            result[result.length - 2] = start;
+            result[result.length - 1] = i - start;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+package com.toxicstoxm.YAJL.util;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that encodes characters to UTF-8 directly, without creating intermediate {@link String}s.
+ * <p>
+ * Instances are meant to be reused: {@link #reset()} keeps the allocated capacity,
+ * so encoding log lines of similar length does not allocate once the buffer has grown large enough.
+ * Instances are not thread-safe.
+ * </p>
+ */
+public final class Utf8Buffer {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private byte[] bytes;
+    private int length;
+
+    public Utf8Buffer(int initialCapacity) {
+        this.bytes = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * Resets the buffer and releases its storage if it grew beyond the given size, e.g. after a huge log message.
+     */
+    public void reset(int maxRetainedCapacity) {
+        length = 0;
+        if (bytes.length > maxRetainedCapacity) {
+            bytes = new byte[maxRetainedCapacity];
+        }
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the backing array, valid from index {@code 0} to {@link #length()}
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    @Contract("_ -> this")
+    public @NotNull Utf8Buffer append(@NotNull CharSequence chars) {
+        int count = chars.length();
+        ensureCapacity(length + count * 3);
+
+        byte[] b = bytes;
+        int pos = length;
+
+        for (int i = 0; i < count; i++) {
+            char c = chars.charAt(i);
+
+            if (c < 0x80) {
+                b[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                b[pos++] = (byte) (0xC0 | (c >> 6));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    b[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                    b[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    b[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    b[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    // Malformed surrogate, replaced the same way String#getBytes does
+                    b[pos++] = '?';
+                }
+            } else {
+                b[pos++] = (byte) (0xE0 | (c >> 12));
+                b[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                b[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        length = pos;
+        return this;
+    }
+
+    @Contract("_, _, _ -> this")
+    public @NotNull Utf8Buffer append(byte @NotNull [] src, int offset, int count) {
+        ensureCapacity(length + count);
+        System.arraycopy(src, offset, bytes, length, count);
+        length += count;
+        return this;
+    }
+
+    @Contract("_ -> this")
+    public @NotNull Utf8Buffer append(@NotNull Utf8Buffer other) {
+        return append(other.bytes, 0, other.length);
+    }
+
+    @Contract("-> this")
+    public @NotNull Utf8Buffer appendLineSeparator() {
+        return append(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+    }
+
+    /**
+     * @return a copy of the buffered bytes
+     */
+    @Contract("-> new")
+    public byte @NotNull [] toByteArray() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    public void writeTo(@NotNull OutputStream out) throws IOException {
+        out.write(bytes, 0, length);
+    }
+
+    /**
+     * Writes the buffered bytes to the given stream. If the stream uses another charset than UTF-8,
+     * the bytes are decoded and printed as text instead, so the stream can encode them itself.
+     */
+    public void printTo(@NotNull PrintStream out) {
+        if (StandardCharsets.UTF_8.equals(out.charset())) {
+            out.write(bytes, 0, length);
+        } else {
+            out.print(toString());
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
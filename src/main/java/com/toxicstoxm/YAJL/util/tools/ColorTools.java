@@ -1,5 +1,6 @@
 package com.toxicstoxm.YAJL.util.tools;
 
+import com.toxicstoxm.YAJL.util.ColorDepth;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -40,6 +41,86 @@ public final class ColorTools {
         return "\033[38;2;" + color.getRed() + ";" + color.getGreen() + ";" + color.getBlue() + "m";
     }
 
+    /**
+     * Converts a color to the ANSI escape code for foreground text color of the given color depth.
+     * Colors are downsampled to the closest color of the 256-color or 16-color palette if needed.
+     */
+    public static @NotNull String toAnsi(Color color, @NotNull ColorDepth depth) {
+        if (color == null) {
+            color = Color.WHITE;
+        }
+
+        return switch (depth) {
+            case TRUECOLOR -> toAnsi(color);
+            case COLOR_256 -> "\033[38;5;" + toXterm256(color) + "m";
+            case COLOR_16 -> {
+                int index = toAnsi16(color);
+                yield "\033[" + (index < 8 ? 30 + index : 90 + index - 8) + "m";
+            }
+        };
+    }
+
+    /**
+     * Levels of the 6x6x6 color cube of the xterm 256-color palette.
+     */
+    private static final int[] CUBE_LEVELS = {0, 95, 135, 175, 215, 255};
+
+    /**
+     * RGB values of the 16 basic ANSI colors, as shown by xterm.
+     */
+    private static final int[][] ANSI_16 = {
+            {0, 0, 0}, {205, 0, 0}, {0, 205, 0}, {205, 205, 0}, {0, 0, 238}, {205, 0, 205}, {0, 205, 205}, {229, 229, 229},
+            {127, 127, 127}, {255, 0, 0}, {0, 255, 0}, {255, 255, 0}, {92, 92, 255}, {255, 0, 255}, {0, 255, 255}, {255, 255, 255}
+    };
+
+    /**
+     * @return the index of the closest color of the xterm 256-color palette, from the color cube or the grayscale ramp
+     */
+    public static int toXterm256(@NotNull Color color) {
+        int r = closestCubeLevel(color.getRed());
+        int g = closestCubeLevel(color.getGreen());
+        int b = closestCubeLevel(color.getBlue());
+        int cubeIndex = 16 + 36 * r + 6 * g + b;
+        int cubeDistance = distance(color, CUBE_LEVELS[r], CUBE_LEVELS[g], CUBE_LEVELS[b]);
+
+        // grayscale ramp: 232 to 255 cover 8 to 238 in steps of 10
+        int average = (color.getRed() + color.getGreen() + color.getBlue()) / 3;
+        int grayStep = Math.max(0, Math.min(23, (average - 3) / 10));
+        int gray = 8 + grayStep * 10;
+        int grayDistance = distance(color, gray, gray, gray);
+
+        return grayDistance < cubeDistance ? 232 + grayStep : cubeIndex;
+    }
+
+    /**
+     * @return the index of the closest of the 16 basic ANSI colors, {@code 0} to {@code 7} normal and {@code 8} to {@code 15} bright
+     */
+    public static int toAnsi16(@NotNull Color color) {
+        int closest = 0;
+        int closestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < ANSI_16.length; i++) {
+            int distance = distance(color, ANSI_16[i][0], ANSI_16[i][1], ANSI_16[i][2]);
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    private static int closestCubeLevel(int value) {
+        if (value < 48) return 0;
+        if (value < 115) return 1;
+        return (value - 35) / 40;
+    }
+
+    private static int distance(@NotNull Color color, int r, int g, int b) {
+        int dr = color.getRed() - r;
+        int dg = color.getGreen() - g;
+        int db = color.getBlue() - b;
+        return dr * dr + dg * dg + db * db;
+    }
+
     /**
      * Generates a random color based on the string input seed.
      * @param seed seed used for generating a random color
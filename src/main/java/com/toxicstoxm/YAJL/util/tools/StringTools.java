@@ -22,4 +22,33 @@ public class StringTools {
 
         return Math.max(max, current);
     }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Appends the text escaped for use inside a JSON string, without the surrounding quotes.
+     */
+    public static void appendJsonEscaped(@NotNull StringBuilder out, @NotNull CharSequence text) {
+        int length = text.length();
+        int start = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') continue;
+
+            // copy the run of characters that need no escaping at once
+            out.append(text, start, i);
+            start = i + 1;
+
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+        }
+        out.append(text, start, length);
+    }
 }
@@ -3,7 +3,11 @@ package com.toxicstoxm.YAJL.util.tools;
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.StackWalker.Option;
+import java.util.Iterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public final class TraceTools {
     public record CallerInfo(
@@ -13,8 +17,25 @@ public final class TraceTools {
             int lineNumber
     ) {}
 
+    /**
+     * Frames fetched by the first batch of a stack walk. Callers are usually found within a few frames of the logger.
+     */
+    private static final int ESTIMATED_DEPTH = 16;
+
+    /**
+     * Maximum number of frames inspected before the caller is reported as unknown.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Call sites memoized per class, so repeated calls from the same line share one {@link CallerInfo}.
+     */
+    private static final int MAX_CALL_SITES_PER_CLASS = 1024;
+
+    private static final CallerInfo UNKNOWN = new CallerInfo("Unknown", "Unknown", "Unknown", -1);
+
     private static final StackWalker WALKER =
-            StackWalker.getInstance(Set.of(Option.RETAIN_CLASS_REFERENCE));
+            StackWalker.getInstance(Set.of(Option.RETAIN_CLASS_REFERENCE), ESTIMATED_DEPTH);
 
     private static final String[] IGNORED_PREFIXES = {
             "com.toxicstoxm.YAJL",
@@ -26,6 +47,59 @@ public final class TraceTools {
             "org.opentest4j."
     };
 
+    /**
+     * Resolved once per class: whether its frames are skipped, and the call sites seen so far.
+     */
+    private static final ClassValue<CallerClass> CALLER_CLASSES = new ClassValue<>() {
+        @Override
+        protected CallerClass computeValue(@NotNull Class<?> type) {
+            return new CallerClass(type.getName());
+        }
+    };
+
+    private record CallSite(String methodName, int lineNumber) {}
+
+    private static final class CallerClass {
+        private final boolean ignored;
+        private final String className;
+        private final String simpleClassName;
+        private final ConcurrentHashMap<CallSite, CallerInfo> callSites = new ConcurrentHashMap<>();
+
+        private CallerClass(@NotNull String className) {
+            this.ignored = isIgnored(className);
+            this.className = className;
+
+            int idx = className.lastIndexOf('.');
+            this.simpleClassName = (idx >= 0) ? className.substring(idx + 1) : className;
+        }
+
+        private @NotNull CallerInfo callerInfo(@NotNull StackWalker.StackFrame frame) {
+            CallSite site = new CallSite(frame.getMethodName(), frame.getLineNumber());
+
+            CallerInfo info = callSites.get(site);
+            if (info != null) return info;
+
+            info = new CallerInfo(className, simpleClassName, site.methodName(), site.lineNumber());
+            if (callSites.size() < MAX_CALL_SITES_PER_CLASS) {
+                CallerInfo existing = callSites.putIfAbsent(site, info);
+                if (existing != null) return existing;
+            }
+            return info;
+        }
+    }
+
+    private static final Function<Stream<StackWalker.StackFrame>, CallerInfo> FIND_CALLER = stream -> {
+        Iterator<StackWalker.StackFrame> frames = stream.limit(MAX_DEPTH).iterator();
+        while (frames.hasNext()) {
+            StackWalker.StackFrame frame = frames.next();
+            CallerClass caller = CALLER_CLASSES.get(frame.getDeclaringClass());
+            if (!caller.ignored) {
+                return caller.callerInfo(frame);
+            }
+        }
+        return UNKNOWN;
+    };
+
     public static String[] ignoredPrefixes() {
         return IGNORED_PREFIXES;
     }
@@ -37,26 +111,13 @@ public final class TraceTools {
         return false;
     }
 
+    /**
+     * Finds the first frame outside YAJL, the JDK and test frameworks.
+     * Frames are skipped by their class, which is checked against the ignored prefixes only once.
+     * The walk stops after a bounded number of frames and the result is shared by all calls from the same line.
+     */
     public static @NotNull CallerInfo getCaller() {
-        return WALKER.walk(stream ->
-                stream
-                        .filter(f -> !isIgnored(f.getClassName()))
-                        .findFirst()
-                        .map(f -> {
-                            String className = f.getClassName();
-                            int idx = className.lastIndexOf('.');
-                            String simple = (idx >= 0)
-                                    ? className.substring(idx + 1)
-                                    : className;
-
-                            return new CallerInfo(
-                                    className,
-                                    simple,
-                                    f.getMethodName(),
-                                    f.getLineNumber()
-                            );
-                        }).orElse(new CallerInfo("Unknown", "Unknown", "Unknown", -1))
-        );
+        return WALKER.walk(FIND_CALLER);
     }
 
     public static @NotNull String formatCallerOrdered(
@@ -69,16 +130,41 @@ public final class TraceTools {
         StringBuilder sb = new StringBuilder(32);
 
         for (String field : fields) {
-            if (!sb.isEmpty()) sb.append(separator);
-
-            switch (field) {
-                case "class"  -> sb.append(c.simpleClassName());
-                case "method" -> sb.append(c.methodName());
-                case "line"   -> sb.append(c.lineNumber());
-            }
+            appendField(sb, c, field, separator, 0);
         }
 
         return sb.toString();
     }
 
+    /**
+     * Appends the given caller fields, in order, directly to {@code out}.
+     * Same output as {@link #formatCallerOrdered(CallerInfo, Iterable, String)}, without the intermediate string.
+     */
+    public static void appendCallerOrdered(
+            @NotNull StringBuilder out,
+            CallerInfo c,
+            @NotNull String @NotNull [] fields,
+            @NotNull String separator
+    ) {
+        if (c == null) {
+            out.append("Unknown");
+            return;
+        }
+
+        int start = out.length();
+        for (String field : fields) {
+            appendField(out, c, field, separator, start);
+        }
+    }
+
+    private static void appendField(@NotNull StringBuilder sb, @NotNull CallerInfo c, @NotNull String field, @NotNull String separator, int start) {
+        if (sb.length() > start) sb.append(separator);
+
+        switch (field) {
+            case "class"  -> sb.append(c.simpleClassName());
+            case "method" -> sb.append(c.methodName());
+            case "line"   -> sb.append(c.lineNumber());
+        }
+    }
+
 }
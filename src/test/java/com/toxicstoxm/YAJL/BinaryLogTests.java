@@ -0,0 +1,143 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.core.LogFields;
+import com.toxicstoxm.YAJL.core.Logger;
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.io.BinaryLogDecoder;
+import com.toxicstoxm.YAJL.io.BinaryLogEvent;
+import com.toxicstoxm.YAJL.io.LogFileManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryLogTests {
+    private static final String LAYOUT = "[{prefix}] [{level}]: {message} {fields}";
+
+    @AfterEach
+    void reset() {
+        LoggerManager.configure().enableLogFiles(false).done();
+        LoggerManager.resetSettings();
+    }
+
+    private static void enableBinaryLogFiles(Path dir, long maxSizeKb) {
+        LoggerManager.configure()
+                .outputs(List.of())
+                .enableLogFiles(true)
+                .binaryLogFiles(true)
+                .compressOldLogFiles(false)
+                .logFileLimit(-1)
+                .logFileMaxSize(maxSizeKb)
+                .logDirectory(dir.toString())
+                .done();
+    }
+
+    private static List<Path> logFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".ylog")).sorted().toList();
+        }
+    }
+
+    @Test
+    void decodedFile_rendersLikeTheTextLayout(@TempDir Path dir) throws IOException {
+        enableBinaryLogFiles(dir, 0);
+
+        Logger logger = LoggerManager.getVirtualLogger("Binary");
+        StringBuilder mutable = new StringBuilder("before");
+
+        logger.info("Request {} answered with {} after {} ms", "/api", 200, 12.5);
+        logger.warn("Value {} and {}", mutable, null);
+        mutable.append("-after");
+        logger.atError().kv("userId", 42L).kv("admin", false).kv("name", "Bob").log("Login {}", "failed");
+        logger.info("first\nsecond");
+
+        LoggerManager.configure().enableLogFiles(false).done();
+
+        List<Path> files = logFiles(dir);
+        assertEquals(1, files.size());
+
+        StringBuilder out = new StringBuilder();
+        long events = BinaryLogDecoder.render(files.getFirst(), LAYOUT, out);
+        assertEquals(4, events);
+
+        String separator = System.lineSeparator();
+        assertEquals(String.join(separator,
+                "[Binary] [INFO]: Request /api answered with 200 after 12.5 ms ",
+                "[Binary] [WARN]: Value before and null ",
+                "[Binary] [ERROR]: Login failed userId=42 admin=false name=Bob",
+                "[Binary] [INFO]: first ",
+                "[Binary] [INFO]: second ") + separator, out.toString());
+    }
+
+    @Test
+    void everyRotatedFile_definesTheStringsItUses(@TempDir Path dir) throws IOException {
+        enableBinaryLogFiles(dir, 1);
+
+        Logger logger = LoggerManager.getVirtualLogger("Rotation");
+        for (int i = 0; i < 500; i++) {
+            logger.info("Event {} of {}", i, 500);
+        }
+
+        LoggerManager.configure().enableLogFiles(false).done();
+
+        List<Path> files = logFiles(dir);
+        assertTrue(files.size() > 1, "expected the file to be rotated");
+
+        List<List<Long>> segments = new ArrayList<>();
+        for (Path file : files) {
+            List<Long> segment = new ArrayList<>();
+            try (BinaryLogDecoder decoder = BinaryLogDecoder.open(file)) {
+                BinaryLogEvent event;
+                while ((event = decoder.next()) != null) {
+                    assertEquals(LogLevels.INFO, event.level());
+                    assertEquals("Event {} of {}", event.template());
+                    segment.add((Long) event.args()[0]);
+                }
+            }
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+
+        // files rotated within the same millisecond get a numbered suffix, so their names don't sort in rotation order
+        segments.sort(Comparator.comparingLong(segment -> segment.getFirst()));
+        List<Long> numbers = segments.stream().flatMap(List::stream).toList();
+
+        assertEquals(500, numbers.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, numbers.get(i));
+        }
+    }
+
+    @Test
+    void textLogFile_dropsUnformattedEvents(@TempDir Path dir) throws IOException {
+        LoggerManager.configure()
+                .outputs(List.of())
+                .compressOldLogFiles(false)
+                .logDirectory(dir.toString())
+                .done();
+
+        // a logger may still hand an event to the binary pipeline right after the format was switched to text
+        LogFileManager manager = new LogFileManager();
+        manager.init();
+        manager.appendBinary(LogLevels.INFO, "Switched", "Event {}", new Object[]{1}, LogFields.EMPTY);
+        manager.shutdown();
+
+        assertEquals(1, manager.getQueueStats().discarded());
+        assertEquals(1, manager.getQueueStats().totalDropped());
+
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                assertEquals(0, Files.size(file), file::toString);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.core.LogFilter;
+import com.toxicstoxm.YAJL.core.LogFilterStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFilterTests {
+    private static boolean allowed(LogFilter filter, String area) {
+        return !filter.isFiltered(area);
+    }
+
+    @Test
+    void patterns_matchExactWildcardAndRegex() {
+        LogFilter filter = new LogFilter(List.of(
+                "com.example.Main",
+                "org.app.*",
+                "*Service",
+                "net.*.db.*",
+                "^io\\.[a-z]+\\.Handler$"
+        ), false);
+
+        assertTrue(allowed(filter, "com.example.Main"));
+        assertFalse(allowed(filter, "com.example.MainX"));
+        assertTrue(allowed(filter, "org.app."));
+        assertTrue(allowed(filter, "org.app.web.Controller"));
+        assertFalse(allowed(filter, "org.apps"));
+        assertTrue(allowed(filter, "UserService"));
+        assertFalse(allowed(filter, "UserServices"));
+        assertTrue(allowed(filter, "net.shop.db.Pool"));
+        assertFalse(allowed(filter, "net.shop.cache.Pool"));
+        assertTrue(allowed(filter, "io.netty.Handler"));
+        assertFalse(allowed(filter, "io.Netty.Handler"));
+    }
+
+    @Test
+    void blacklist_invertsResult() {
+        LogFilter filter = new LogFilter(List.of("noisy.*"), true);
+
+        assertTrue(filter.isFiltered("noisy.Worker"));
+        assertFalse(filter.isFiltered("quiet.Worker"));
+    }
+
+    @Test
+    void cache_isBoundedAndCountsHits() {
+        LogFilter filter = new LogFilter(List.of("*"), false, 64);
+
+        for (int i = 0; i < 1000; i++) {
+            filter.isFiltered("tenant-" + i);
+        }
+        filter.isFiltered("tenant-999");
+
+        LogFilterStats stats = filter.getCacheStats();
+        assertTrue(stats.size() <= 64, "size " + stats.size());
+        assertEquals(1000, stats.misses());
+        assertEquals(1, stats.hits());
+        assertTrue(stats.evictions() >= 1000 - 64);
+    }
+}
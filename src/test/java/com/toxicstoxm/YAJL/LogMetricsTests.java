@@ -0,0 +1,113 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.core.Logger;
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.metrics.HistogramSnapshot;
+import com.toxicstoxm.YAJL.metrics.LatencyHistogram;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import com.toxicstoxm.YAJL.metrics.MetricsSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogMetricsTests {
+    @AfterEach
+    void reset() {
+        LoggerManager.resetSettings();
+        LogMetrics.reset();
+    }
+
+    @Test
+    void histogram_percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count());
+        assertEquals(10_000_000, snapshot.max());
+        assertEquals(5_000_500, snapshot.mean(), 0.001);
+
+        // Buckets are 12.5% wide, the reported value is the upper bound of the bucket
+        assertEquals(5_000_000, snapshot.p50(), 5_000_000 * 0.125);
+        assertEquals(9_900_000, snapshot.p99(), 9_900_000 * 0.125);
+        assertTrue(snapshot.p50() >= 5_000_000);
+        assertEquals(0, new LatencyHistogram().valueAtPercentile(99));
+    }
+
+    @Test
+    void snapshot_countsEventsByLevel() throws Exception {
+        LoggerManager.configure()
+                .outputs(List.of(new PrintStream(OutputStream.nullOutputStream())))
+                .minimumLogLevel(LogLevels.INFO.getLevel())
+                .metricsEnabled(true)
+                .metricsSampleRate(1)
+                .metricsJmx(true)
+                .done();
+        LogMetrics.reset();
+
+        Logger logger = LoggerManager.getVirtualLogger("metrics");
+        logger.info("one");
+        logger.info("two");
+        logger.warn("three");
+        logger.debug("filtered");
+
+        MetricsSnapshot snapshot = LogMetrics.snapshot();
+        assertEquals(3, snapshot.events());
+        assertEquals(2, snapshot.eventsByLevel().get("INFO"));
+        assertEquals(1, snapshot.eventsByLevel().get("WARN"));
+        assertEquals(3, snapshot.logLatency().count());
+        assertEquals(3, snapshot.renderLatency().count());
+
+        Object events = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName("com.toxicstoxm.YAJL:type=LogMetrics"), "Events");
+        assertEquals(3L, events);
+    }
+
+    @Test
+    void metrics_areDisabledByDefault() {
+        LoggerManager.configure()
+                .outputs(List.of(new PrintStream(OutputStream.nullOutputStream())))
+                .done();
+        LogMetrics.reset();
+
+        LoggerManager.getVirtualLogger("metrics").info("not counted");
+
+        assertFalse(LogMetrics.isEnabled());
+        assertEquals(0, LogMetrics.snapshot().events());
+    }
+
+    @Test
+    void events_ofTerminatedAndVirtualThreadsAreKept() throws Exception {
+        LogMetrics.configure(true, 64);
+        LogMetrics.countEvent(LogLevels.INFO);
+        LogMetrics.reset();
+
+        List<Thread> threads = List.of(
+                Thread.ofPlatform().start(() -> LogMetrics.countEvent(LogLevels.INFO)),
+                Thread.ofPlatform().start(() -> LogMetrics.countEvent(LogLevels.WARN)),
+                Thread.ofVirtual().start(() -> LogMetrics.countEvent(LogLevels.INFO))
+        );
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LogMetrics.countEvent(LogLevels.INFO);
+
+        MetricsSnapshot snapshot = LogMetrics.snapshot();
+        assertEquals(4, snapshot.events());
+        assertEquals(3, snapshot.eventsByLevel().get("INFO"));
+        assertEquals(1, snapshot.eventsByLevel().get("WARN"));
+
+        LogMetrics.reset();
+        assertEquals(0, LogMetrics.snapshot().events());
+    }
+}
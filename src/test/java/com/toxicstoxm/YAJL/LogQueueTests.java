@@ -0,0 +1,63 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.io.LogQueue;
+import com.toxicstoxm.YAJL.io.LogQueueType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogQueueTests {
+    @ParameterizedTest
+    @EnumSource(LogQueueType.class)
+    void offerFailsWhenFull(LogQueueType type) {
+        LogQueue<String> queue = type.create(4);
+
+        for (int i = 0; i < queue.capacity(); i++) {
+            assertTrue(queue.offer("msg-" + i));
+        }
+        assertFalse(queue.offer("overflow"));
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(2, queue.drain(drained::add, 2));
+        assertEquals(List.of("msg-0", "msg-1"), drained);
+
+        assertTrue(queue.offer("msg-" + queue.capacity()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LogQueueType.class)
+    void concurrentProducersKeepTheirOrder(LogQueueType type) throws InterruptedException {
+        LogQueue<int[]> queue = type.create(128);
+        int producers = 4;
+        int perProducer = 10_000;
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    int[] element = {producer, i};
+                    while (!queue.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            received += queue.drain(element -> assertEquals(next[element[0]]++, element[1]), 64);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -1,20 +1,42 @@
 package com.toxicstoxm.YAJL;
 
+import com.toxicstoxm.YAJL.core.LogEnvironment;
+import com.toxicstoxm.YAJL.core.LogEventBuilder;
+import com.toxicstoxm.YAJL.core.LogFields;
 import com.toxicstoxm.YAJL.core.LogFilter;
+import com.toxicstoxm.YAJL.core.Loggable;
 import com.toxicstoxm.YAJL.core.Logger;
 import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.RenderContext;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.io.Appender;
+import com.toxicstoxm.YAJL.io.AsyncAppender;
+import com.toxicstoxm.YAJL.io.LogLine;
+import com.toxicstoxm.YAJL.io.OverflowPolicy;
+import com.toxicstoxm.YAJL.io.WaitStrategy;
+import com.toxicstoxm.YAJL.layout.LayoutToken;
+import com.toxicstoxm.YAJL.util.CachingSupplier;
+import com.toxicstoxm.YAJL.util.ColorDepth;
+import com.toxicstoxm.YAJL.util.tools.ColorTools;
+import com.toxicstoxm.YAJL.util.tools.TraceTools;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import utils.LogCapture;
 
+import java.awt.*;
 import java.io.File;
 import java.io.PrintStream;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -468,4 +490,522 @@ public class LoggerTests {
             assertEquals("Hello [Hello, dsfgsdf, djsfsd, dsfdf]\n", cap.read());
         }
     }
+
+    @Test
+    void levelGuards_followConfigChanges() {
+        LoggerManager.configure()
+                .minimumLogLevel(LogLevels.INFO.getLevel())
+                .done();
+
+        assertFalse(logger.isDebugEnabled());
+        assertTrue(logger.isInfoEnabled());
+        assertTrue(logger.isEnabled(LogLevels.FATAL));
+
+        LoggerManager.configure()
+                .minimumLogLevel(LogLevels.DEBUG.getLevel())
+                .done();
+
+        assertTrue(logger.isDebugEnabled());
+        assertFalse(logger.isVerboseEnabled());
+
+        LoggerManager.configure()
+                .muteLogger(true)
+                .done();
+
+        assertFalse(logger.isFatalEnabled());
+    }
+
+    @Test
+    void fixedArityOverloads_areFormattedAndFiltered() {
+        try (LogCapture cap = new LogCapture()) {
+            configure(cap.ps);
+
+            logger.info("{} {} {} {}", "A", "B", "C", "D");
+            logger.debug("{}", "hidden");
+
+            assertEquals("A A B C D\n", cap.read());
+        }
+    }
+
+    @Test
+    void asyncConsoleOutput_deliversEveryLineInOrder() throws InterruptedException {
+        try (LogCapture cap = new LogCapture()) {
+            LoggerManager.configure()
+                    .outputs(List.of(cap.ps))
+                    .logMessageLayout("{message}")
+                    .asyncConsoleOutput(true)
+                    .asyncConsoleBufferSize(64)
+                    .done();
+
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                final int thread = t;
+                threads[t] = new Thread(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        logger.info("{}-{}", thread, i);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            // Stopping the async writer drains everything that is still buffered
+            LoggerManager.configure()
+                    .asyncConsoleOutput(false)
+                    .done();
+
+            String[] lines = cap.read().split("\n");
+            assertEquals(4000, lines.length);
+
+            int[] next = new int[threads.length];
+            for (String line : lines) {
+                String[] parts = line.split("-");
+                int thread = Integer.parseInt(parts[0]);
+                assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+            }
+        }
+    }
+
+    @Test
+    void singlePassRender_matchesSeparateColoredAndPlainRenders() {
+        LoggerManager.configure()
+                .logMessageLayout("{levelColor}[{level}] {prefixColor}{prefix}{color:hex=#FF0000} {message} {unknownColor}")
+                .done();
+
+        List<LayoutToken> tokens = LoggerManager.getCompiledLayout().getTokens();
+        LogEnvironment env = new LogEnvironment(LogLevels.INFO, "Hello", "Prefix", new CachingSupplier<>(TraceTools::getCaller), 0, LogFields.EMPTY);
+
+        StringBuilder colored = new StringBuilder();
+        StringBuilder plain = new StringBuilder();
+        Logger.renderLayout(tokens, env, colored, plain);
+
+        assertEquals(Logger.renderLayout(tokens, env, new RenderContext(true)), colored.toString());
+        assertEquals(Logger.renderLayout(tokens, env, new RenderContext(false)), plain.toString());
+        assertEquals("[INFO] Prefix Hello {unknownColor}", plain.toString());
+    }
+
+    private static final class CollectingAppender implements Appender {
+        private final List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean closed;
+
+        @Override
+        public void append(@NotNull LogLine line) {
+            lines.add(line.getBytes().toString().strip());
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void appenders_receiveLinesByLevelAndArea() {
+        CollectingAppender all = new CollectingAppender();
+        CollectingAppender warnings = new CollectingAppender();
+        CollectingAppender area = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(all)
+                .addAppender(warnings, LogLevels.WARN)
+                .addAppender(area, "SomeVirutalArea")
+                .logMessageLayout("{levelColor}{message}")
+                .done();
+
+        logger.info("info");
+        logger.warn("warn");
+        virtuallogger.info("virtual");
+        LoggerManager.getVirtualLogger("SomeVirutalAreaSuffix").info("suffix");
+        LoggerManager.getVirtualLogger("SomeVirutalArea.Child").info("child");
+
+        assertEquals(List.of("info", "warn", "virtual", "suffix", "child"), all.lines);
+        assertEquals(List.of("warn"), warnings.lines);
+        assertEquals(List.of("virtual", "child"), area.lines);
+
+        LoggerManager.configure()
+                .removeAppender(warnings)
+                .done();
+
+        assertTrue(warnings.closed);
+        assertFalse(all.closed);
+    }
+
+    @Test
+    void asyncAppender_passesBatchesInOrder() {
+        CollectingAppender target = new CollectingAppender();
+        AsyncAppender async = new AsyncAppender(target);
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(async)
+                .logMessageLayout("{message}")
+                .done();
+
+        for (int i = 0; i < 1000; i++) {
+            logger.info("{}", i);
+        }
+        async.flush();
+
+        assertEquals(1000, target.lines.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), target.lines.get(i));
+        }
+
+        LoggerManager.configure()
+                .appenders(List.of())
+                .done();
+
+        assertFalse(async.isRunning());
+        assertTrue(target.closed);
+    }
+
+    @Test
+    void asyncAppender_keepsLinesAppendedWhileStopping() throws InterruptedException {
+        int producers = 4;
+        int linesPerProducer = 20_000;
+
+        // Stops the appender while the producers are appending, some of them will race with the drainer shutting down
+        for (int round = 0; round < 10; round++) {
+            CollectingAppender target = new CollectingAppender();
+            AsyncAppender async = new AsyncAppender(target);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int p = 0; p < producers; p++) {
+                Thread thread = new Thread(() -> {
+                    LogLine line = new LogLine();
+                    line.set(LogLevels.INFO, "Producer");
+                    line.getBytes().append("line");
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < linesPerProducer; i++) {
+                        async.append(line);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            start.countDown();
+            Thread.sleep(1);
+            async.stop();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(producers * linesPerProducer, target.lines.size(), "Round " + round);
+        }
+    }
+
+    @Test
+    void asyncAppender_rejectsDropOldest() {
+        assertThrows(IllegalArgumentException.class, () -> new AsyncAppender(
+                new CollectingAppender(), 64, WaitStrategy.PARK, OverflowPolicy.DROP_OLDEST, LogLevels.WARN, "Rejected"
+        ));
+    }
+
+    @Test
+    void asyncConsoleOutput_fallsBackToDropForDropOldest() {
+        try (LogCapture cap = new LogCapture()) {
+            LoggerManager.configure()
+                    .outputs(List.of(cap.ps))
+                    .logMessageLayout("{message}")
+                    .asyncConsoleOutput(true)
+                    .asyncConsoleOverflowPolicy(OverflowPolicy.DROP_OLDEST)
+                    .done();
+
+            logger.info("still logged");
+
+            LoggerManager.configure()
+                    .asyncConsoleOutput(false)
+                    .done();
+
+            assertEquals("still logged", cap.read().trim());
+        }
+    }
+
+    @Test
+    void structuredEvents_renderFieldsAsTextAndJson() {
+        CollectingAppender text = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(text)
+                .logMessageLayout("{message} {fields}")
+                .done();
+
+        logger.atInfo().kv("userId", 42).kv("ratio", 0.5).kv("admin", true).kv("name", "Bob").log("Login {}", "ok");
+        assertEquals(List.of("Login ok userId=42 ratio=0.5 admin=true name=Bob"), text.lines);
+
+        CollectingAppender json = new CollectingAppender();
+        LoggerManager.configure()
+                .appenders(List.of())
+                .addAppender(json)
+                .logMessageLayout("{json:level,message,fields}")
+                .done();
+
+        logger.atWarn().kv("path", "C:\\tmp \"x\"").kv("count", 3L).kv("missing", (Object) null).log("Tab\there");
+        assertEquals(List.of("{\"level\":\"WARN\",\"message\":\"Tab\\there\",\"path\":\"C:\\\\tmp \\\"x\\\"\",\"count\":3,\"missing\":null}"), json.lines);
+    }
+
+    @Test
+    void structuredEvents_returnNoOpBuilderForDisabledLevels() {
+        LoggerManager.configure()
+                .outputs(List.of())
+                .minimumLogLevel(LogLevels.INFO.getLevel())
+                .done();
+
+        assertSame(LogEventBuilder.NOOP, logger.atDebug());
+        assertSame(LogEventBuilder.NOOP, logger.atDebug().kv("key", "value"));
+        assertTrue(logger.atInfo().isEnabled());
+    }
+
+    private record Point(int x, int y) implements Loggable {}
+
+    private static final class Counter implements Loggable {
+        private int value;
+
+        @Override
+        public @NotNull Object snapshot() {
+            return "Counter(" + value + ")";
+        }
+    }
+
+    @Test
+    void deferredFormatting_snapshotsMutableArguments() {
+        CollectingAppender appender = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(appender)
+                .logMessageLayout("{message}")
+                .deferredFormatting(true)
+                .done();
+
+        StringBuilder text = new StringBuilder("before");
+        Counter counter = new Counter();
+        logger.info("{} {} {} {}", text, counter, new Point(1, 2), 7);
+        text.setLength(0);
+        text.append("after");
+        counter.value = 5;
+
+        // disabling deferred formatting renders all pending events
+        LoggerManager.configure()
+                .deferredFormatting(false)
+                .done();
+
+        assertEquals(List.of("before Counter(0) Point[x=1, y=2] 7"), appender.lines);
+    }
+
+    @Test
+    void deferredFormatting_leavesFieldsOfTheCallerUntouched() {
+        CollectingAppender appender = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(appender)
+                .logMessageLayout("{message} {fields}")
+                .deferredFormatting(true)
+                .done();
+
+        StringBuilder state = new StringBuilder("first");
+        LogEventBuilder event = logger.atInfo().kv("state", state);
+        event.log("a");
+        state.setLength(0);
+        state.append("second");
+        event.log("b");
+
+        LoggerManager.configure()
+                .deferredFormatting(false)
+                .done();
+
+        assertEquals(List.of("a state=first", "b state=second"), appender.lines);
+    }
+
+    @Test
+    void deferredFormatting_keepsOrderOfEachThreadWhileTheQueueIsFull() throws InterruptedException {
+        List<String> lines = Collections.synchronizedList(new ArrayList<>());
+        Appender slow = new Appender() {
+            @Override
+            public void append(@NotNull LogLine line) {
+                LockSupport.parkNanos(20_000);
+                lines.add(line.getBytes().toString().strip());
+            }
+
+            @Override
+            public void flush() {}
+
+            @Override
+            public void close() {}
+        };
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(slow)
+                .logMessageLayout("{message}")
+                .deferredFormatting(true)
+                .deferredFormattingBufferSize(2)
+                .done();
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    logger.info("{}-{}", thread, i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        LoggerManager.configure()
+                .deferredFormatting(false)
+                .done();
+
+        assertEquals(800, lines.size());
+        int[] next = new int[threads.length];
+        for (String line : lines) {
+            String[] parts = line.split("-");
+            int thread = Integer.parseInt(parts[0]);
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]), line);
+        }
+    }
+
+    @Test
+    void compiledLayout_showsCallerOnlyForTracePlaceholders() {
+        assertFalse(showsCaller("{message}"));
+        assertFalse(showsCaller("trace: {message}"));
+        assertFalse(showsCaller("{json:level,message}"));
+        assertTrue(showsCaller("{message} at {trace}"));
+        assertTrue(showsCaller("{trace:method}"));
+        assertTrue(showsCaller("{json:message,trace}"));
+    }
+
+    private static boolean showsCaller(String layout) {
+        LoggerManager.configure()
+                .logMessageLayout(layout)
+                .done();
+        return LoggerManager.getCompiledLayout().showsCaller();
+    }
+
+    @Test
+    void reusedEvents_supportNestedLogCalls() {
+        CollectingAppender appender = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(appender)
+                .logMessageLayout("{message}")
+                .done();
+
+        Supplier<String> nested = () -> {
+            logger.info("inner {}", 1);
+            return "value";
+        };
+        logger.info("outer {} {}", nested, 2);
+        logger.info("next {}", 3);
+
+        assertEquals(List.of("inner 1", "outer value 2", "next 3"), appender.lines);
+    }
+
+    @Test
+    void multilineMessage_isWrittenAsOneBlockIfAtomic() {
+        CollectingAppender appender = new CollectingAppender();
+
+        LoggerManager.configure()
+                .outputs(List.of())
+                .addAppender(appender)
+                .logMessageLayout("> {message}")
+                .done();
+
+        logger.info("first\n\nsecond {}", 2);
+        assertEquals(List.of("> first" + System.lineSeparator() + "> second 2"), appender.lines);
+
+        appender.lines.clear();
+        LoggerManager.configure()
+                .atomicMultiLineMessages(false)
+                .done();
+
+        logger.info("first\n\nsecond {}", 2);
+        assertEquals(List.of("> first", "> second 2"), appender.lines);
+    }
+
+    @Test
+    void registry_returnsSameLoggerAndRefreshesItsState() {
+        Logger first = LoggerManager.getVirtualLogger("tenant-42");
+        assertSame(first, LoggerManager.getVirtualLogger("tenant-42"));
+        assertSame(logger, LoggerManager.getLogger(LoggerTests.class));
+        assertNotSame(first, LoggerManager.getVirtualLogger("tenant-42", "Tenant 42"));
+
+        assertFalse(first.isFiltered());
+
+        LoggerManager.configure()
+                .logAreaFilterPatterns(List.of("tenant-1*"))
+                .done();
+
+        assertTrue(first.isFiltered());
+        assertFalse(first.isInfoEnabled());
+    }
+
+    @Test
+    void colorDepth_downsamplesEscapes() {
+        assertEquals(196, ColorTools.toXterm256(Color.RED));
+        assertEquals(244, ColorTools.toXterm256(new Color(128, 128, 128)));
+        assertEquals(9, ColorTools.toAnsi16(Color.RED));
+        assertEquals("\033[91m", ColorTools.toAnsi(Color.RED, ColorDepth.COLOR_16));
+
+        try (LogCapture cap = new LogCapture()) {
+            LoggerManager.configure()
+                    .addOutput(cap.ps)
+                    .colorDepth(ColorDepth.COLOR_256)
+                    .logMessageLayout("{levelColor}{message}")
+                    .done();
+
+            logger.error("Red");
+
+            assertEquals("\033[38;5;196mRed\033[0m\n", cap.read());
+        }
+    }
+
+    @Test
+    void levelOverrides_applyToAreaAndSubAreas() {
+        Logger db = LoggerManager.getVirtualLogger("com.acme.db");
+        Logger pool = LoggerManager.getVirtualLogger("com.acme.db.Pool");
+        Logger dbx = LoggerManager.getVirtualLogger("com.acme.dbx");
+        Logger web = LoggerManager.getVirtualLogger("com.acme.web.Controller");
+
+        LoggerManager.configure()
+                .levelOverride("com.acme.db", LogLevels.DEBUG)
+                .levelOverride("com.acme.db.Pool", LogLevels.WARN)
+                .levelOverride("com.acme.w*", LogLevels.ERROR)
+                .minimumLogLevel(LogLevels.INFO.getLevel())
+                .done();
+
+        assertTrue(db.isDebugEnabled());
+        assertFalse(pool.isInfoEnabled());
+        assertTrue(pool.isWarnEnabled());
+        assertFalse(dbx.isDebugEnabled());
+        assertTrue(dbx.isInfoEnabled());
+        assertFalse(web.isWarnEnabled());
+        assertTrue(web.isErrorEnabled());
+
+        LoggerManager.configure()
+                .levelOverrides(List.of("com.acme.db.Pool = verbose", "invalid"))
+                .done();
+
+        assertTrue(pool.isVerboseEnabled());
+        assertFalse(db.isDebugEnabled());
+    }
 }
@@ -0,0 +1,102 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.io.MappedFileOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedFileOutputStreamTests {
+    private static final int CHUNK_SIZE = 4096;
+    private static final int LINES = 1000;
+
+    private static byte[] expectedContent() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < LINES; i++) {
+            sb.append("Line ").append(i).append(" of the memory-mapped log file\n");
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeLines(MappedFileOutputStream out) throws IOException {
+        for (int i = 0; i < LINES; i++) {
+            out.write(("Line " + i + " of the memory-mapped log file\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void close_truncatesToWrittenLength(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("test.log");
+        byte[] expected = expectedContent();
+
+        try (MappedFileOutputStream out = new MappedFileOutputStream(file, CHUNK_SIZE)) {
+            writeLines(out);
+            assertEquals(expected.length, out.length());
+            assertEquals(0, Files.size(file) % CHUNK_SIZE);
+        }
+
+        assertArrayEquals(expected, Files.readAllBytes(file));
+
+        // Reopening appends behind the existing content
+        try (MappedFileOutputStream out = new MappedFileOutputStream(file, CHUNK_SIZE)) {
+            out.write('!');
+        }
+        assertEquals(expected.length + 1, Files.size(file));
+    }
+
+    /**
+     * Halts a child JVM in the middle of a chunk, without closing the stream.
+     * Everything written must survive, followed by the zero-filled rest of the chunk, which recovery removes.
+     */
+    @Test
+    void haltMidChunk_keepsWrittenBytesAndIsRecoverable(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("crashed.log");
+        byte[] expected = expectedContent();
+        assertNotEquals(0, expected.length % CHUNK_SIZE, "The writer must stop in the middle of a chunk");
+
+        Process child = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", childClasspath(),
+                HaltingWriter.class.getName(),
+                file.toString()
+        ).inheritIO().start();
+
+        assertTrue(child.waitFor(30, TimeUnit.SECONDS), "Child JVM did not terminate");
+        assertEquals(HaltingWriter.EXIT_CODE, child.exitValue());
+
+        byte[] crashed = Files.readAllBytes(file);
+        assertEquals(0, crashed.length % CHUNK_SIZE);
+        assertTrue(crashed.length > expected.length);
+        for (int i = 0; i < crashed.length; i++) {
+            assertEquals(i < expected.length ? expected[i] : 0, crashed[i], "Byte " + i);
+        }
+
+        assertEquals(crashed.length - expected.length, MappedFileOutputStream.trimTrailingZeros(file));
+        assertArrayEquals(expected, Files.readAllBytes(file));
+        assertEquals(0, MappedFileOutputStream.trimTrailingZeros(file));
+    }
+
+    private static String childClasspath() throws URISyntaxException {
+        return Path.of(MappedFileOutputStream.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                + File.pathSeparator
+                + Path.of(HaltingWriter.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    public static final class HaltingWriter {
+        static final int EXIT_CODE = 42;
+
+        public static void main(String[] args) throws IOException {
+            MappedFileOutputStream out = new MappedFileOutputStream(Path.of(args[0]), CHUNK_SIZE);
+            writeLines(out);
+            Runtime.getRuntime().halt(EXIT_CODE);
+        }
+    }
+}
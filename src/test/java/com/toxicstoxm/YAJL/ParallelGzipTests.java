@@ -0,0 +1,58 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.io.ParallelGzip;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelGzipTests {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0, Long.MAX_VALUE})
+    void compressedFile_decompressesToTheOriginal(long parallelThreshold, @TempDir Path dir) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 3 * ParallelGzip.BLOCK_SIZE + 12345; i++) {
+            sb.append("[12:00:00] [Worker-").append(i % 7).append("] [INFO]: Processed request ").append(i).append('\n');
+        }
+        byte[] original = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        Path source = dir.resolve("test.log");
+        Path target = dir.resolve("test.log.gz");
+        Files.write(source, original);
+
+        AtomicLong progress = new AtomicLong();
+        long size = ParallelGzip.compress(source, target, 6, parallelThreshold, pool, progress::addAndGet);
+
+        assertEquals(Files.size(target), size);
+        assertTrue(size < original.length);
+        assertEquals(original.length, progress.get());
+
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(target))) {
+            assertArrayEquals(original, in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.toxicstoxm.YAJL;
+
+import com.toxicstoxm.YAJL.util.TimestampCache;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimestampCacheTests {
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "HH:mm:ss",
+            "HH:mm:ss.SSS",
+            "yyyy-MM-dd_HH-mm-ss-SSS",
+            "SSSSSSSSS 'nanos' ss.S",
+            "HH:mm:ss.nnnnnnnnn"
+    })
+    void matchesDateTimeFormatter(String pattern) {
+        TimestampCache cache = new TimestampCache(pattern, ZONE);
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern).withZone(ZONE);
+
+        long base = Instant.parse("2025-03-30T00:59:58Z").toEpochMilli() * 1_000_000L;
+        long[] offsets = {0, 7, 1_000_000, 123_456_789, 999_999_999, 1_000_000_000, 1_000_000_001, 2_500_000_000L};
+
+        for (long offset : offsets) {
+            long nanos = base + offset;
+            Instant instant = Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+            assertEquals(formatter.format(instant), cache.format(nanos), "offset " + offset);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerConfig;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileDurabilityTests extends LogFileManagerFixture {
+    /**
+     * Forces are counted by the metrics, which start from zero once the manager is running.
+     */
+    private LoggerConfig.LoggerConfigBuilder configure(DurabilityMode mode) {
+        return configureStallable()
+                .metricsEnabled(true)
+                .durabilityMode(mode);
+    }
+
+    @Override
+    void start() {
+        super.start();
+        LogMetrics.reset();
+    }
+
+    private static long forces() {
+        return LogMetrics.snapshot().forceLatency().count();
+    }
+
+    /**
+     * Waits until the writer wrote the given number of lines and decided whether to force them.
+     */
+    private void awaitWritten(long lines) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (LogMetrics.snapshot().linesWritten() < lines) {
+            assertTrue(System.nanoTime() < deadline, "Lines were not written in time");
+            Thread.sleep(1);
+        }
+
+        // the writer reads the clock again only after it committed the batch
+        clock.stall();
+        clock.awaitStalled();
+        clock.resume();
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.TIMED_WAITING) {
+            assertTrue(System.nanoTime() < deadline, "Thread did not start waiting in time");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void everyBatch_forcesOnceForAllLinesOfACommitWindow() throws Exception {
+        configure(DurabilityMode.EVERY_BATCH)
+                .blockUntilDurable(true)
+                .durabilityTimeout(TimeUnit.MINUTES.toMillis(1))
+                .done();
+        start();
+
+        clock.stall();
+        write(LogLevels.INFO, "wake up");
+        clock.awaitStalled();
+        LogMetrics.reset();
+
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            LogLevel level = i % 2 == 0 ? LogLevels.ERROR : LogLevels.FATAL;
+            String text = "caller " + i;
+            Thread caller = new Thread(() -> write(level, text));
+            caller.start();
+            callers.add(caller);
+        }
+
+        // every caller queued its line and waits for it, while the writer can't take any of them
+        for (Thread caller : callers) {
+            awaitParked(caller);
+        }
+        assertEquals(0, forces());
+
+        long start = System.nanoTime();
+        clock.resume();
+        for (Thread caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(caller.isAlive(), "Caller was not released after the force");
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10), "Callers were released by their timeout");
+        assertEquals(1, forces());
+
+        List<String> lines = written().getFirst().lines();
+        for (int i = 0; i < 8; i++) {
+            assertTrue(lines.contains("caller " + i), lines::toString);
+        }
+    }
+
+    @Test
+    void levelAtLeast_forcesOnlyForMatchingLevels() throws Exception {
+        configure(DurabilityMode.LEVEL_AT_LEAST)
+                .durabilityLevel(LogLevels.WARN)
+                .done();
+        start();
+
+        for (int i = 0; i < 5; i++) {
+            write(LogLevels.INFO, "info " + i);
+        }
+        write(LogLevels.DEBUG, "debug");
+        awaitWritten(6);
+        assertEquals(0, forces());
+
+        write(LogLevels.WARN, "warn");
+        awaitWritten(7);
+        assertEquals(1, forces());
+
+        write(LogLevels.INFO, "info");
+        awaitWritten(8);
+        assertEquals(1, forces());
+
+        write(LogLevels.ERROR, "error");
+        awaitWritten(9);
+        assertEquals(2, forces());
+    }
+
+    @Test
+    void levelAtLeast_onlyBlocksCallersAtTheDurabilityLevel() throws Exception {
+        configure(DurabilityMode.LEVEL_AT_LEAST)
+                .blockUntilDurable(true)
+                .durabilityTimeout(TimeUnit.MINUTES.toMillis(1))
+                .done();
+        start();
+
+        clock.stall();
+        write(LogLevels.INFO, "wake up");
+        clock.awaitStalled();
+
+        // lines below the durability level return immediately, even though the writer can't take them
+        write(LogLevels.WARN, "warn");
+
+        Thread caller = new Thread(() -> write(LogLevels.ERROR, "error"));
+        caller.start();
+        awaitParked(caller);
+
+        clock.resume();
+        caller.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(caller.isAlive(), "Caller was not released after the force");
+        assertEquals(1, forces());
+    }
+
+    @Test
+    void blockUntilDurable_releasesCallerOnceTheTimeoutExpired() {
+        configure(DurabilityMode.INTERVAL)
+                .durabilityInterval(TimeUnit.HOURS.toMillis(1))
+                .blockUntilDurable(true)
+                .durabilityTimeout(200)
+                .done();
+        start();
+
+        // no force is due within the interval, so the caller waits for its timeout
+        long start = System.nanoTime();
+        write(LogLevels.ERROR, "error");
+        long waited = System.nanoTime() - start;
+
+        assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(200), "Caller returned after " + waited + " ns");
+        assertTrue(waited < TimeUnit.SECONDS.toNanos(10), "Caller returned after " + waited + " ns");
+        assertEquals(0, forces());
+
+        // lines below the durability level don't wait at all
+        start = System.nanoTime();
+        write(LogLevels.WARN, "warn");
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+    }
+}
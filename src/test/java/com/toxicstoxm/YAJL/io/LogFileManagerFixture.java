@@ -0,0 +1,90 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerConfig;
+import com.toxicstoxm.YAJL.core.LoggerManager;
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+import com.toxicstoxm.YAJL.metrics.LogMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link LogFileManager} on a {@link ManualClock}, writing to a temporary directory.
+ * Settings and the manager are reset after every test.
+ */
+abstract class LogFileManagerFixture {
+    @TempDir
+    Path directory;
+
+    final ManualClock clock = new ManualClock(ZonedDateTime.of(2024, 1, 1, 10, 30, 0, 0, ZoneId.systemDefault()));
+    LogFileManager manager;
+
+    @BeforeEach
+    void resetSettings() {
+        LoggerManager.resetSettings();
+    }
+
+    @AfterEach
+    void stopManager() {
+        clock.resume();
+        if (manager != null) {
+            manager.shutdown();
+        }
+        LoggerManager.resetSettings();
+        LogMetrics.reset();
+    }
+
+    /**
+     * @return settings writing uncompressed files to the temporary directory, without internal log messages
+     */
+    LoggerConfig.LoggerConfigBuilder configure() {
+        return LoggerManager.configure()
+                .internalLog(false)
+                .logDirectory(directory.toString())
+                .compressOldLogFiles(false);
+    }
+
+    /**
+     * Like {@link #configure()}, with a timed rotation that is never due.
+     * The writer then reads the clock on every iteration, so tests can {@link ManualClock#stall() stall} it.
+     */
+    LoggerConfig.LoggerConfigBuilder configureStallable() {
+        return configure().logFileMaxAge(TimeUnit.DAYS.toMinutes(365));
+    }
+
+    void start() {
+        manager = new LogFileManager(clock);
+        manager.init();
+    }
+
+    /**
+     * Starts the manager and waits until its writer is stalled, so lines stay in the queue until {@link ManualClock#resume()}.
+     * Requires {@link #configureStallable()}.
+     */
+    void startStalled() throws InterruptedException {
+        start();
+        clock.stall();
+        clock.awaitStalled();
+    }
+
+    void write(LogLevel level, String text) {
+        manager.append(LogFiles.line(level, text));
+    }
+
+    /**
+     * Shuts the manager down, so every queued line is written.
+     *
+     * @return the written log files, see {@link LogFiles#read(Path)}
+     */
+    List<LogFiles.Segment> written() throws IOException {
+        manager.shutdown();
+        return LogFiles.read(directory);
+    }
+}
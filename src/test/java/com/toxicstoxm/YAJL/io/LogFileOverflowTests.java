@@ -0,0 +1,222 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerConfig;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileOverflowTests extends LogFileManagerFixture {
+    private static final int CAPACITY = 4;
+
+    private LoggerConfig.LoggerConfigBuilder configure(OverflowPolicy policy) {
+        return configureStallable()
+                .logFileQueueCapacity(CAPACITY)
+                .logFileOverflowPolicy(policy);
+    }
+
+    private void fillQueue() {
+        for (int i = 0; i < CAPACITY; i++) {
+            write(LogLevels.INFO, "queued " + i);
+        }
+        assertEquals(CAPACITY, manager.getQueueStats().depth());
+    }
+
+    private static List<String> queued(int from) {
+        return Stream.iterate(from, i -> i + 1).limit(CAPACITY - from).map(i -> "queued " + i).toList();
+    }
+
+    private List<String> writtenLines() throws IOException {
+        return written().getFirst().lines();
+    }
+
+    private static Thread writeInBackground(Runnable write) throws InterruptedException {
+        Thread thread = new Thread(write);
+        thread.start();
+
+        // still waiting for space after a while
+        thread.join(50);
+        assertTrue(thread.isAlive(), "Line was not blocked by the full queue");
+        return thread;
+    }
+
+    @Test
+    void drop_dropsLinesThatDontFit() throws Exception {
+        configure(OverflowPolicy.DROP).done();
+        startStalled();
+
+        fillQueue();
+        write(LogLevels.INFO, "dropped");
+        write(LogLevels.FATAL, "dropped as well");
+
+        LogQueueStats stats = manager.getQueueStats();
+        assertEquals(CAPACITY, stats.depth());
+        assertEquals(CAPACITY, stats.capacity());
+        assertEquals(1.0, stats.utilization());
+        assertEquals(2, stats.dropped());
+        assertEquals(0, stats.droppedBelowLevel() + stats.evicted() + stats.timedOut() + stats.spilled());
+
+        clock.resume();
+        assertEquals(queued(0), writtenLines());
+        assertEquals(0, manager.getQueueStats().depth());
+    }
+
+    @Test
+    void dropBelowLevel_dropsLowLevelsAndBlocksTheRest() throws Exception {
+        configure(OverflowPolicy.DROP_BELOW_LEVEL)
+                .logFileDropThreshold(LogLevels.WARN)
+                .logFileBlockTimeout(TimeUnit.SECONDS.toMillis(10))
+                .done();
+        startStalled();
+
+        fillQueue();
+        write(LogLevels.INFO, "dropped");
+        assertEquals(1, manager.getQueueStats().droppedBelowLevel());
+
+        Thread warn = writeInBackground(() -> write(LogLevels.WARN, "waited"));
+
+        clock.resume();
+        warn.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(warn.isAlive());
+
+        List<String> expected = new ArrayList<>(queued(0));
+        expected.add("waited");
+        assertEquals(expected, writtenLines());
+
+        LogQueueStats stats = manager.getQueueStats();
+        assertEquals(1, stats.droppedBelowLevel());
+        assertEquals(0, stats.dropped() + stats.evicted() + stats.timedOut() + stats.spilled());
+    }
+
+    @Test
+    void block_givesUpOnceTheTimeoutElapsed() throws Exception {
+        configure(OverflowPolicy.BLOCK)
+                .logFileBlockTimeout(100)
+                .done();
+        startStalled();
+
+        fillQueue();
+
+        long start = System.nanoTime();
+        write(LogLevels.ERROR, "timed out");
+        long waited = System.nanoTime() - start;
+
+        assertTrue(waited >= TimeUnit.MILLISECONDS.toNanos(100), "Returned after " + waited + " ns");
+        assertEquals(1, manager.getQueueStats().timedOut());
+
+        clock.resume();
+        assertEquals(queued(0), writtenLines());
+    }
+
+    @Test
+    void dropOldest_evictsTheOldestLineForAWaitingProducer() throws Exception {
+        configure(OverflowPolicy.DROP_OLDEST)
+                .logFileBlockTimeout(TimeUnit.SECONDS.toMillis(10))
+                .done();
+        startStalled();
+
+        fillQueue();
+        Thread newest = writeInBackground(() -> write(LogLevels.INFO, "newest"));
+
+        clock.resume();
+        newest.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(newest.isAlive());
+
+        List<String> expected = new ArrayList<>(queued(1));
+        expected.add("newest");
+        assertEquals(expected, writtenLines());
+
+        LogQueueStats stats = manager.getQueueStats();
+        assertEquals(1, stats.evicted());
+        assertEquals(0, stats.dropped() + stats.droppedBelowLevel() + stats.timedOut() + stats.spilled());
+    }
+
+    @Test
+    void dropOldest_doesNotEvictOnceTheProducerGaveUp() throws Exception {
+        configure(OverflowPolicy.DROP_OLDEST)
+                .logFileBlockTimeout(100)
+                .done();
+        startStalled();
+
+        fillQueue();
+        write(LogLevels.INFO, "timed out");
+        assertEquals(1, manager.getQueueStats().timedOut());
+
+        // nobody waits for space anymore, so every queued line is written
+        clock.resume();
+        assertEquals(queued(0), writtenLines());
+        assertEquals(0, manager.getQueueStats().evicted());
+    }
+
+    @Test
+    void spill_writesLinesThatDontFitToTheOverflowFile() throws Exception {
+        configure(OverflowPolicy.DROP)
+                .logFileOverflowSpill(true)
+                .done();
+        startStalled();
+
+        fillQueue();
+        write(LogLevels.INFO, "spilled");
+        write(LogLevels.WARN, "spilled as well");
+
+        LogQueueStats stats = manager.getQueueStats();
+        assertEquals(2, stats.spilled());
+        assertEquals(0, stats.dropped());
+
+        clock.resume();
+        manager.shutdown();
+
+        List<Path> overflowFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            overflowFiles = files.filter(file -> file.getFileName().toString().endsWith(".overflow.log")).toList();
+        }
+        assertEquals(1, overflowFiles.size());
+        assertEquals(List.of("spilled", "spilled as well"), Files.readAllLines(overflowFiles.getFirst()));
+
+        Path logFile = Path.of(overflowFiles.getFirst().toString().replace(".overflow.log", ".log"));
+        assertEquals(queued(0), Files.readAllLines(logFile));
+    }
+
+    @Test
+    void spill_isDisabledForBinaryLogFiles() throws Exception {
+        configure(OverflowPolicy.DROP)
+                .binaryLogFiles(true)
+                .logFileOverflowSpill(true)
+                .done();
+        startStalled();
+
+        fillQueue();
+        write(LogLevels.INFO, "dropped");
+        write(LogLevels.WARN, "dropped as well");
+
+        LogQueueStats stats = manager.getQueueStats();
+        assertEquals(2, stats.dropped());
+        assertEquals(0, stats.spilled());
+
+        clock.resume();
+        manager.shutdown();
+
+        // only the binary log file itself, no overflow file
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.toList();
+        }
+        assertEquals(1, files.size(), files::toString);
+
+        List<String> lines = new ArrayList<>();
+        try (BinaryLogDecoder decoder = BinaryLogDecoder.open(files.getFirst())) {
+            for (BinaryLogEvent event = decoder.next(); event != null; event = decoder.next()) {
+                lines.add(event.message().strip());
+            }
+        }
+        assertEquals(queued(0), lines);
+    }
+}
@@ -0,0 +1,75 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileRecoveryTests extends LogFileManagerFixture {
+    private static final FileTime LAST_MODIFIED = FileTime.from(Instant.parse("2023-06-01T12:00:00Z"));
+
+    /**
+     * Writes a log file that ends with the zero-filled tail of a memory mapping.
+     */
+    private Path unclosedFile(String name, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] content = Arrays.copyOf(bytes, bytes.length + 4096);
+
+        Path file = directory.resolve(name);
+        Files.write(file, content);
+        Files.setLastModifiedTime(file, LAST_MODIFIED);
+        return file;
+    }
+
+    private List<String> markers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".mapped")).toList();
+        }
+    }
+
+    @Test
+    void startup_trimsOnlyMarkedFilesAndKeepsTheirLastModifiedTime() throws IOException {
+        Path marked = unclosedFile("log_marked.log", "mapped\n");
+        Files.createFile(directory.resolve("log_marked.log.mapped"));
+        Path unmarked = unclosedFile("log_unmarked.log", "written\n");
+
+        configure().done();
+        start();
+        manager.shutdown();
+
+        assertEquals("mapped\n", Files.readString(marked));
+        assertEquals(LAST_MODIFIED, Files.getLastModifiedTime(marked));
+
+        // never written through a mapping, so its content is left as it is
+        assertEquals(8 + 4096, Files.size(unmarked));
+        assertEquals(LAST_MODIFIED, Files.getLastModifiedTime(unmarked));
+
+        assertEquals(List.of(), markers());
+    }
+
+    @Test
+    void closedMappedFile_isNotMarkedAnymore() throws IOException {
+        configure()
+                .memoryMappedLogFiles(true)
+                .done();
+        start();
+
+        assertEquals(1, markers().size());
+
+        write(LogLevels.INFO, "mapped");
+        List<LogFiles.Segment> segments = written();
+
+        assertEquals(List.of("mapped"), segments.getFirst().lines());
+        assertEquals(List.of(), markers());
+    }
+}
@@ -0,0 +1,168 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.LoggerConfig;
+import com.toxicstoxm.YAJL.core.level.LogLevels;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogFileRotationTests extends LogFileManagerFixture {
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * Every line waits until it was written, so the writer checks the rotation triggers between any two lines.
+     */
+    private LoggerConfig.LoggerConfigBuilder configurePaced() {
+        return configure()
+                .logFileLimit(-1)
+                .durabilityMode(DurabilityMode.EVERY_BATCH)
+                .durabilityLevel(LogLevels.STACKTRACE)
+                .blockUntilDurable(true);
+    }
+
+    private void write(String text) {
+        write(LogLevels.INFO, text);
+    }
+
+    private static String numbered(int i) {
+        // 99 characters plus the line separator
+        return String.format("line-%02d ", i) + "x".repeat(91);
+    }
+
+    private static List<String> numbered(int from, int to) {
+        return IntStream.range(from, to).mapToObj(LogFileRotationTests::numbered).toList();
+    }
+
+    @Test
+    void maxSize_rotatesOnceReachedAndCompressesClosedSegments() throws IOException {
+        assertEquals(100, (numbered(0) + System.lineSeparator()).length(), "Lines are expected to be 100 bytes long");
+
+        configurePaced()
+                .logFileMaxSize(1)
+                .compressOldLogFiles(true)
+                .compressedFileSizeLimit(1024)
+                .done();
+        start();
+
+        for (int i = 0; i < 25; i++) {
+            write(numbered(i));
+        }
+        List<LogFiles.Segment> segments = written();
+        assertEquals(3, segments.size());
+
+        // 1 KiB is reached after 11 lines of 100 bytes
+        assertEquals(numbered(0, 11), segments.get(0).lines());
+        assertEquals(numbered(11, 22), segments.get(1).lines());
+        assertEquals(numbered(22, 25), segments.get(2).lines());
+
+        // closed segments are handed over to compression, the current one is left as it is on shutdown
+        assertTrue(segments.get(0).name().matches("log_.+\\.log\\.gz"), segments.get(0).name());
+        assertTrue(segments.get(1).name().matches("log_.+\\.log\\.gz"), segments.get(1).name());
+        assertTrue(segments.get(2).name().matches("log_.+\\.log"), segments.get(2).name());
+        assertEquals(2, manager.getCompressionStats().filesCompressed());
+    }
+
+    @Test
+    void maxAge_rotatesOnlyNonEmptyFiles() throws IOException {
+        configurePaced()
+                .logFileMaxAge(60)
+                .done();
+        start();
+
+        // the file is still empty when it becomes due, so only its next rotation is scheduled
+        clock.advance(Duration.ofMinutes(61));
+        write("first");
+        clock.advance(Duration.ofMinutes(59));
+        write("second");
+        clock.advance(Duration.ofMinutes(2));
+        write("third");
+        List<LogFiles.Segment> segments = written();
+        assertEquals(2, segments.size());
+        assertEquals(List.of("first", "second"), segments.get(0).lines());
+        assertEquals(List.of("third"), segments.get(1).lines());
+    }
+
+    @Test
+    void hourlyBoundary_rotatesAtTheFullHourAcrossDays() throws IOException {
+        clock.set(ZonedDateTime.of(2024, 12, 31, 22, 59, 59, 0, ZONE));
+        configurePaced()
+                .logFileRotationBoundary(RotationBoundary.HOURLY)
+                .done();
+        start();
+
+        write("a 22:59:59");
+        clock.set(ZonedDateTime.of(2024, 12, 31, 22, 59, 59, 999_000_000, ZONE));
+        write("b 22:59:59.999");
+        clock.set(ZonedDateTime.of(2024, 12, 31, 23, 0, 0, 0, ZONE));
+        write("c 23:00");
+        clock.set(ZonedDateTime.of(2025, 1, 1, 0, 0, 1, 0, ZONE));
+        write("d 00:00:01");
+        List<LogFiles.Segment> segments = written();
+        assertEquals(3, segments.size());
+        assertEquals(List.of("a 22:59:59", "b 22:59:59.999"), segments.get(0).lines());
+        assertEquals(List.of("c 23:00"), segments.get(1).lines());
+        assertEquals(List.of("d 00:00:01"), segments.get(2).lines());
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    @Test
+    void boundaries_rollOverHoursDaysAndYears() {
+        ZoneId utc = ZoneId.of("UTC");
+
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, utc)),
+                RotationBoundary.HOURLY.next(millis(ZonedDateTime.of(2023, 12, 31, 23, 30, 0, 0, utc)), utc)
+        );
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, utc)),
+                RotationBoundary.DAILY.next(millis(ZonedDateTime.of(2023, 12, 31, 0, 0, 0, 1_000_000, utc)), utc)
+        );
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 3, 1, 0, 0, 0, 0, utc)),
+                RotationBoundary.DAILY.next(millis(ZonedDateTime.of(2024, 2, 29, 12, 0, 0, 0, utc)), utc)
+        );
+
+        // exactly at a boundary, the next one is returned
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 1, 1, 11, 0, 0, 0, utc)),
+                RotationBoundary.HOURLY.next(millis(ZonedDateTime.of(2024, 1, 1, 10, 0, 0, 0, utc)), utc)
+        );
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 1, 2, 0, 0, 0, 0, utc)),
+                RotationBoundary.DAILY.next(millis(ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, utc)), utc)
+        );
+
+        assertEquals(Long.MAX_VALUE, RotationBoundary.NONE.next(0, utc));
+    }
+
+    @Test
+    void boundaries_followLocalTime() {
+        ZoneId berlin = ZoneId.of("Europe/Berlin");
+        ZoneId kolkata = ZoneId.of("Asia/Kolkata");
+
+        // clocks jump from 02:00 to 03:00, one hour after 01:30 is 03:00 local time
+        long beforeGap = millis(ZonedDateTime.of(2024, 3, 31, 1, 30, 0, 0, berlin));
+        assertEquals(millis(ZonedDateTime.of(2024, 3, 31, 3, 0, 0, 0, berlin)), RotationBoundary.HOURLY.next(beforeGap, berlin));
+        assertEquals(Duration.ofMinutes(30).toMillis(), RotationBoundary.HOURLY.next(beforeGap, berlin) - beforeGap);
+
+        // that day only has 23 hours
+        long startOfDay = millis(ZonedDateTime.of(2024, 3, 31, 0, 0, 0, 0, berlin));
+        assertEquals(Duration.ofHours(23).toMillis(), RotationBoundary.DAILY.next(startOfDay, berlin) - startOfDay);
+
+        // full hours of a zone with a half hour offset
+        assertEquals(
+                millis(ZonedDateTime.of(2024, 1, 1, 11, 0, 0, 0, kolkata)),
+                RotationBoundary.HOURLY.next(millis(ZonedDateTime.of(2024, 1, 1, 10, 15, 0, 0, kolkata)), kolkata)
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package com.toxicstoxm.YAJL.io;
+
+import com.toxicstoxm.YAJL.core.level.LogLevel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Helpers for tests running their own {@link LogFileManager}.
+ */
+final class LogFiles {
+    private LogFiles() {}
+
+    record Segment(String name, List<String> lines) {}
+
+    static LogLine line(LogLevel level, String text) {
+        LogLine line = new LogLine();
+        line.set(level, "LogFiles");
+        line.getBytes().append(text).appendLineSeparator();
+        return line;
+    }
+
+    /**
+     * @return the text and gzip compressed log files in the directory, ordered by their first line
+     */
+    static List<Segment> read(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.sorted().toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".log")) {
+                    segments.add(new Segment(name, Files.readAllLines(file)));
+                } else if (name.endsWith(".log.gz")) {
+                    try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                        segments.add(new Segment(name, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList()));
+                    }
+                }
+            }
+        }
+
+        segments.sort(Comparator.comparing(segment -> segment.lines().isEmpty() ? "" : segment.lines().getFirst()));
+        return segments;
+    }
+}
@@ -0,0 +1,82 @@
+package com.toxicstoxm.YAJL.io;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Wall clock for a {@link LogFileManager} that only moves when a test sets it.
+ * <p>
+ * While the clock is {@link #stall() stalled}, the writer thread blocks the next time it reads the clock,
+ * which lets tests fill the queue while nothing is taken from it.
+ * The writer reads the clock on every iteration as long as a timed rotation is scheduled.
+ * </p>
+ */
+final class ManualClock implements LongSupplier {
+    private static final String WRITER_THREAD = "YAJL-LogWriter";
+
+    private volatile long millis;
+
+    private final Object lock = new Object();
+    private boolean stalled;
+    private boolean writerWaiting;
+
+    ManualClock(ZonedDateTime time) {
+        set(time);
+    }
+
+    void set(ZonedDateTime time) {
+        millis = time.toInstant().toEpochMilli();
+    }
+
+    void advance(Duration duration) {
+        millis += duration.toMillis();
+    }
+
+    /**
+     * Blocks the writer thread the next time it reads the clock.
+     */
+    void stall() {
+        synchronized (lock) {
+            stalled = true;
+        }
+    }
+
+    /**
+     * Waits until the writer thread is blocked by {@link #stall()}.
+     */
+    void awaitStalled() throws InterruptedException {
+        synchronized (lock) {
+            while (!writerWaiting) {
+                lock.wait();
+            }
+        }
+    }
+
+    void resume() {
+        synchronized (lock) {
+            stalled = false;
+            lock.notifyAll();
+        }
+    }
+
+    @Override
+    public long getAsLong() {
+        if (Thread.currentThread().getName().equals(WRITER_THREAD)) {
+            synchronized (lock) {
+                try {
+                    while (stalled) {
+                        writerWaiting = true;
+                        lock.notifyAll();
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    writerWaiting = false;
+                }
+            }
+        }
+        return millis;
+    }
+}